@@ -0,0 +1,217 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.benchmarks;
+
+import io.bootique.di.BQModule;
+import io.bootique.di.Binder;
+import io.bootique.di.Key;
+import io.bootique.di.Provides;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Object model and module shared by the benchmarks. Covers all major binding flavors: singleton, no-scope,
+ * dynamic, provider method, decorated, set and map bindings, and two circular dependencies, one resolved via a proxy
+ * and one broken by a provider injection.
+ */
+public class BenchmarkModule implements BQModule {
+
+    static final Key<Service> SINGLETON = Key.get(Service.class, "singleton");
+    static final Key<Service> NO_SCOPE = Key.get(Service.class, "noScope");
+    static final Key<Service> PROVIDES = Key.get(Service.class, "provides");
+    static final Key<Service> DECORATED = Key.get(Service.class, "decorated");
+    static final Key<Set<Service>> SET = Key.getSetOf(Service.class);
+    static final Key<Map<String, Service>> MAP = Key.getMapOf(String.class, Service.class);
+
+    @Override
+    public void configure(Binder binder) {
+        binder.bind(Dependency1.class).to(Dependency1Impl.class).withoutScope();
+        binder.bind(Dependency2.class).to(Dependency2Impl.class).inSingletonScope();
+
+        binder.bind(SINGLETON).to(ServiceImpl.class).inSingletonScope();
+        binder.bind(NO_SCOPE).to(ServiceImpl.class).withoutScope();
+
+        binder.bind(DECORATED).to(ServiceImpl.class).withoutScope();
+        binder.decorate(DECORATED).before(ServiceDecorator.class);
+
+        binder.bindSet(Service.class)
+                .add(ServiceImpl.class)
+                .addInstance(new ServiceImpl(new Dependency1Impl()))
+                .addProviderInstance(() -> new ServiceImpl(new Dependency1Impl()))
+                .withoutScope();
+
+        binder.bindMap(String.class, Service.class)
+                .put("a", ServiceImpl.class)
+                .putInstance("b", new ServiceImpl(new Dependency1Impl()))
+                .putProviderInstance("c", () -> new ServiceImpl(new Dependency1Impl()))
+                .withoutScope();
+
+        binder.bind(ProxyCycleA.class).to(ProxyCycleAImpl.class).withoutScope();
+        binder.bind(ProxyCycleB.class).to(ProxyCycleBImpl.class).withoutScope();
+        binder.bind(ProviderCycleA.class).to(ProviderCycleAImpl.class).withoutScope();
+        binder.bind(ProviderCycleB.class).to(ProviderCycleBImpl.class).withoutScope();
+    }
+
+    @Provides
+    @Named("provides")
+    Service provideService(Dependency1 dependency1, Provider<Dependency2> dependency2) {
+        return new ServiceImpl(dependency1);
+    }
+
+    public interface Service {
+        Dependency1 getDependency1();
+    }
+
+    public interface Dependency1 {
+    }
+
+    public interface Dependency2 {
+    }
+
+    public static class Dependency1Impl implements Dependency1 {
+    }
+
+    public static class Dependency2Impl implements Dependency2 {
+    }
+
+    public static class ServiceImpl implements Service {
+
+        private final Dependency1 dependency1;
+
+        @Inject
+        private Dependency2 dependency2;
+
+        @Inject
+        private Provider<Dependency1> dependency1Provider;
+
+        @Inject
+        public ServiceImpl(Dependency1 dependency1) {
+            this.dependency1 = dependency1;
+        }
+
+        @Override
+        public Dependency1 getDependency1() {
+            return dependency1;
+        }
+    }
+
+    public static class ServiceDecorator implements Service {
+
+        private final Service delegate;
+
+        @Inject
+        private Dependency2 dependency2;
+
+        @Inject
+        public ServiceDecorator(Service delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Dependency1 getDependency1() {
+            return delegate.getDependency1();
+        }
+    }
+
+    /**
+     * Not bound explicitly, resolved via a dynamic binding.
+     */
+    public static class DynamicService {
+
+        @Inject
+        Dependency1 dependency1;
+
+        @Inject
+        Dependency2 dependency2;
+    }
+
+    /**
+     * Not bound explicitly, resolved via a dynamic binding in the singleton scope.
+     */
+    @Singleton
+    public static class DynamicSingletonService {
+
+        @Inject
+        Dependency2 dependency2;
+    }
+
+    public interface ProxyCycleA {
+    }
+
+    public interface ProxyCycleB {
+    }
+
+    /**
+     * Depends on {@link ProxyCycleB} that depends back on this type, so it gets a proxy of this type.
+     */
+    public static class ProxyCycleAImpl implements ProxyCycleA {
+
+        final ProxyCycleB b;
+
+        @Inject
+        public ProxyCycleAImpl(ProxyCycleB b) {
+            this.b = b;
+        }
+    }
+
+    public static class ProxyCycleBImpl implements ProxyCycleB {
+
+        final ProxyCycleA a;
+
+        @Inject
+        public ProxyCycleBImpl(ProxyCycleA a) {
+            this.a = a;
+        }
+    }
+
+    public interface ProviderCycleA {
+    }
+
+    public interface ProviderCycleB {
+    }
+
+    /**
+     * Same cycle as {@link ProxyCycleAImpl}, broken by a provider, the way it is done with the proxies disabled.
+     */
+    public static class ProviderCycleAImpl implements ProviderCycleA {
+
+        final ProviderCycleB b;
+
+        @Inject
+        public ProviderCycleAImpl(ProviderCycleB b) {
+            this.b = b;
+        }
+    }
+
+    public static class ProviderCycleBImpl implements ProviderCycleB {
+
+        final Provider<ProviderCycleA> a;
+
+        @Inject
+        public ProviderCycleBImpl(Provider<ProviderCycleA> a) {
+            this.a = a;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.benchmarks;
+
+import io.bootique.di.BQModule;
+import io.bootique.di.DIBootstrap;
+import io.bootique.di.Injector;
+import io.bootique.di.Key;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DIBootstrap#createInjector(BQModule...)} for a growing number of bindings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InjectorBuildBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int bindings;
+
+    private BQModule[] modules;
+
+    @Setup
+    public void setup() {
+        int size = bindings;
+        BQModule bindingsModule = binder -> {
+            // a mix of the most common binding styles, each under its own name
+            for (int i = 0; i < size; i++) {
+                Key<BenchmarkModule.Service> key = Key.get(BenchmarkModule.Service.class, "s" + i);
+                switch (i % 3) {
+                    case 0:
+                        binder.bind(key).to(BenchmarkModule.ServiceImpl.class).inSingletonScope();
+                        break;
+                    case 1:
+                        binder.bind(key).toProvider(ServiceProvider.class).withoutScope();
+                        break;
+                    default:
+                        binder.bind(key).toInstance(new BenchmarkModule.ServiceImpl(new BenchmarkModule.Dependency1Impl()));
+                        break;
+                }
+            }
+        };
+
+        modules = new BQModule[]{new BenchmarkModule(), bindingsModule};
+    }
+
+    @Benchmark
+    public Injector createInjector() {
+        return DIBootstrap.createInjector(modules);
+    }
+
+    public static class ServiceProvider implements javax.inject.Provider<BenchmarkModule.Service> {
+
+        @Override
+        public BenchmarkModule.Service get() {
+            return new BenchmarkModule.ServiceImpl(new BenchmarkModule.Dependency1Impl());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.benchmarks;
+
+import io.bootique.di.DIBootstrap;
+import io.bootique.di.Injector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Injector#getInstance(io.bootique.di.Key)} for different kinds of bindings with injection trace and
+ * proxy creation turned on and off. Proxy creation only matters for circular dependencies, measured by
+ * {@link #cycle()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResolutionBenchmark {
+
+    @Param({"true", "false"})
+    public boolean trace;
+
+    @Param({"true", "false"})
+    public boolean proxy;
+
+    private Injector injector;
+
+    @Setup
+    public void setup() {
+        DIBootstrap.InjectorBuilder builder = DIBootstrap.injectorBuilder(new BenchmarkModule());
+        if (!trace) {
+            builder.disableTrace();
+        }
+        if (!proxy) {
+            builder.disableProxyCreation();
+        }
+        injector = builder.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        injector.shutdown();
+    }
+
+    @Benchmark
+    public Object singleton() {
+        return injector.getInstance(BenchmarkModule.SINGLETON);
+    }
+
+    @Benchmark
+    public Object noScope() {
+        return injector.getInstance(BenchmarkModule.NO_SCOPE);
+    }
+
+    @Benchmark
+    public Object dynamic() {
+        return injector.getInstance(BenchmarkModule.DynamicService.class);
+    }
+
+    @Benchmark
+    public Object dynamicSingleton() {
+        return injector.getInstance(BenchmarkModule.DynamicSingletonService.class);
+    }
+
+    @Benchmark
+    public Object provides() {
+        return injector.getInstance(BenchmarkModule.PROVIDES);
+    }
+
+    @Benchmark
+    public Object decorated() {
+        return injector.getInstance(BenchmarkModule.DECORATED);
+    }
+
+    /**
+     * Resolves a circular dependency. With the proxies enabled, the cycle is closed by a proxy created on each call.
+     * With the proxies disabled, such cycle can't be resolved, so a similar one broken by a provider is measured
+     * instead.
+     */
+    @Benchmark
+    public Object cycle() {
+        return proxy
+                ? injector.getInstance(BenchmarkModule.ProxyCycleA.class)
+                : injector.getInstance(BenchmarkModule.ProviderCycleA.class);
+    }
+
+    @Benchmark
+    public Object set() {
+        return injector.getInstance(BenchmarkModule.SET);
+    }
+
+    @Benchmark
+    public Object map() {
+        return injector.getInstance(BenchmarkModule.MAP);
+    }
+}
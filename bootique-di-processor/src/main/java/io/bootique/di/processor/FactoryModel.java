@@ -0,0 +1,526 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Injection metadata of a single class, collected from the compiler model the same way the injector collects it
+ * via reflection at runtime.
+ */
+class FactoryModel {
+
+    static final String FACTORY_SUFFIX = "_BQFactory";
+
+    private static final String PROVIDER = "javax.inject.Provider";
+    private static final String QUALIFIER = "javax.inject.Qualifier";
+    private static final String NAMED = "javax.inject.Named";
+
+    private final String packageName;
+    private final String factoryName;
+    private final String typeName;
+    private final List<Dependency> constructorParameters;
+    private final List<InjectedField> fields;
+
+    private FactoryModel(
+            String packageName,
+            String factoryName,
+            String typeName,
+            List<Dependency> constructorParameters,
+            List<InjectedField> fields) {
+        this.packageName = packageName;
+        this.factoryName = factoryName;
+        this.typeName = typeName;
+        this.constructorParameters = constructorParameters;
+        this.fields = fields;
+    }
+
+    /**
+     * @return factory model or null if a factory can't be generated for a given type
+     */
+    static FactoryModel build(TypeElement type, ProcessingEnvironment env) {
+        return new Builder(type, env).build();
+    }
+
+    String getPackageName() {
+        return packageName;
+    }
+
+    String getFactoryName() {
+        return factoryName;
+    }
+
+    String getFactoryQualifiedName() {
+        return packageName.isEmpty() ? factoryName : packageName + "." + factoryName;
+    }
+
+    String getTypeName() {
+        return typeName;
+    }
+
+    List<Dependency> getConstructorParameters() {
+        return constructorParameters;
+    }
+
+    List<InjectedField> getFields() {
+        return fields;
+    }
+
+    /**
+     * An injected value: a constructor parameter or a field.
+     */
+    static class Dependency {
+
+        private final String type;
+        private final String keyType;
+        private final boolean keyTypeGeneric;
+        private final boolean provider;
+        private final String bindingName;
+        private final String qualifier;
+
+        Dependency(String type, String keyType, boolean keyTypeGeneric, boolean provider, String bindingName, String qualifier) {
+            this.type = type;
+            this.keyType = keyType;
+            this.keyTypeGeneric = keyTypeGeneric;
+            this.provider = provider;
+            this.bindingName = bindingName;
+            this.qualifier = qualifier;
+        }
+
+        /**
+         * @return source representation of the declared type of the parameter or field
+         */
+        String getType() {
+            return type;
+        }
+
+        /**
+         * @return source representation of the bound type, i.e. the declared type or the Provider type parameter
+         */
+        String getKeyType() {
+            return keyType;
+        }
+
+        /**
+         * @return whether key type is parameterized and should be expressed as a TypeLiteral
+         */
+        boolean isKeyTypeGeneric() {
+            return keyTypeGeneric;
+        }
+
+        boolean isProvider() {
+            return provider;
+        }
+
+        /**
+         * @return a name from the @Named qualifier or null
+         */
+        String getBindingName() {
+            return bindingName;
+        }
+
+        /**
+         * @return qualified name of a qualifier annotation other than @Named, or null
+         */
+        String getQualifier() {
+            return qualifier;
+        }
+    }
+
+    static class InjectedField {
+
+        private final String declaringType;
+        private final boolean inherited;
+        private final String name;
+        private final Dependency dependency;
+
+        InjectedField(String declaringType, boolean inherited, String name, Dependency dependency) {
+            this.declaringType = declaringType;
+            this.inherited = inherited;
+            this.name = name;
+            this.dependency = dependency;
+        }
+
+        String getDeclaringType() {
+            return declaringType;
+        }
+
+        /**
+         * @return whether the field is declared in a superclass and should be accessed via a cast to the
+         * declaring class, as it may be hidden by a subclass field with the same name
+         */
+        boolean isInherited() {
+            return inherited;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Dependency getDependency() {
+            return dependency;
+        }
+    }
+
+    private static class Builder {
+
+        private final TypeElement type;
+        private final ProcessingEnvironment env;
+        private final String packageName;
+
+        Builder(TypeElement type, ProcessingEnvironment env) {
+            this.type = type;
+            this.env = env;
+            this.packageName = env.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        }
+
+        FactoryModel build() {
+            if (!isInstantiable()) {
+                return null;
+            }
+
+            ExecutableElement constructor = findConstructor();
+            if (constructor == null || constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return null;
+            }
+
+            List<Dependency> parameters = new ArrayList<>();
+            for (VariableElement parameter : constructor.getParameters()) {
+                Dependency dependency = dependency(parameter);
+                if (dependency == null) {
+                    return null;
+                }
+                parameters.add(dependency);
+            }
+
+            List<InjectedField> fields = new ArrayList<>();
+            if (!collectFields(type, fields)) {
+                return null;
+            }
+
+            return new FactoryModel(packageName, factoryName(), type.getQualifiedName().toString(), parameters, fields);
+        }
+
+        private boolean isInstantiable() {
+            if (type.getKind() != ElementKind.CLASS
+                    || type.getModifiers().contains(Modifier.ABSTRACT)
+                    || !type.getTypeParameters().isEmpty()) {
+                return false;
+            }
+
+            // nested classes must be static and visible, local and anonymous classes are not supported
+            for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+                TypeElement t = (TypeElement) e;
+                if (t.getNestingKind() == NestingKind.LOCAL || t.getNestingKind() == NestingKind.ANONYMOUS) {
+                    return false;
+                }
+
+                if (t.getModifiers().contains(Modifier.PRIVATE)) {
+                    return false;
+                }
+
+                if (t.getNestingKind() == NestingKind.MEMBER && !t.getModifiers().contains(Modifier.STATIC)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        // same logic as in ConstructorInjectingProvider: the longest @Inject constructor or the default one
+        private ExecutableElement findConstructor() {
+            ExecutableElement lastMatch = null;
+            int lastSize = -1;
+
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+                int size = constructor.getParameters().size();
+                if (size <= lastSize) {
+                    continue;
+                }
+
+                if (size == 0 || isInjectable(constructor)) {
+                    lastSize = size;
+                    lastMatch = constructor;
+                }
+            }
+
+            return lastMatch;
+        }
+
+        // collects fields of the superclasses first, same as FieldInjectionPlan
+        private boolean collectFields(TypeElement declaringType, List<InjectedField> fields) {
+            TypeMirror superclass = declaringType.getSuperclass();
+            if (superclass.getKind() == TypeKind.DECLARED) {
+                TypeElement superType = (TypeElement) ((DeclaredType) superclass).asElement();
+                if (!superType.getQualifiedName().contentEquals("java.lang.Object") && !collectFields(superType, fields)) {
+                    return false;
+                }
+            } else if (superclass.getKind() != TypeKind.NONE) {
+                return false;
+            }
+
+            boolean inherited = declaringType != type;
+            for (VariableElement field : ElementFilter.fieldsIn(declaringType.getEnclosedElements())) {
+                if (field.getModifiers().contains(Modifier.STATIC) || !isInjectable(field)) {
+                    continue;
+                }
+
+                if (field.getModifiers().contains(Modifier.FINAL) || !isAccessible(field, declaringType)) {
+                    return false;
+                }
+
+                if (inherited && !isAccessible(declaringType)) {
+                    return false;
+                }
+
+                Dependency dependency = dependency(field);
+                if (dependency == null) {
+                    return false;
+                }
+
+                fields.add(new InjectedField(
+                        declaringType.getQualifiedName().toString(),
+                        inherited,
+                        field.getSimpleName().toString(),
+                        dependency));
+            }
+
+            return true;
+        }
+
+        private Dependency dependency(VariableElement element) {
+            TypeMirror type = element.asType();
+            String typeName = typeName(type);
+            if (typeName == null) {
+                return null;
+            }
+
+            TypeMirror keyType = type;
+            boolean provider = false;
+            if (type.getKind() == TypeKind.DECLARED
+                    && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(PROVIDER)) {
+
+                List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+                if (arguments.size() != 1) {
+                    // non-parameterized provider is reported by the injector
+                    return null;
+                }
+
+                keyType = arguments.get(0);
+                provider = true;
+            }
+
+            String bindingName = null;
+            String qualifier = null;
+            int qualifiers = 0;
+            for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+                TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+                if (!isQualifier(annotationType)) {
+                    continue;
+                }
+
+                // multiple qualifiers is an error reported by the injector
+                if (++qualifiers > 1 || !isAccessible(annotationType)) {
+                    return null;
+                }
+
+                if (annotationType.getQualifiedName().contentEquals(NAMED)) {
+                    String name = namedValue(annotation);
+                    // empty name is the same as no qualifier
+                    bindingName = name.isEmpty() ? null : name;
+                } else {
+                    qualifier = annotationType.getQualifiedName().toString();
+                }
+            }
+
+            String keyTypeName = provider ? typeName(keyType) : typeName;
+            if (keyTypeName == null) {
+                return null;
+            }
+
+            return new Dependency(typeName, keyTypeName, isGeneric(keyType), provider, bindingName, qualifier);
+        }
+
+        private String namedValue(AnnotationMirror annotation) {
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e
+                    : annotation.getElementValues().entrySet()) {
+                if (e.getKey().getSimpleName().contentEquals("value")) {
+                    return String.valueOf(e.getValue().getValue());
+                }
+            }
+            return "";
+        }
+
+        /**
+         * Renders a type usable in the generated source, or returns null if the type can't be referenced from the
+         * factory (e.g. a type variable, or a type not visible from the package).
+         */
+        private String typeName(TypeMirror type) {
+            switch (type.getKind()) {
+                case BOOLEAN:
+                case BYTE:
+                case SHORT:
+                case INT:
+                case LONG:
+                case CHAR:
+                case FLOAT:
+                case DOUBLE:
+                    return type.getKind().name().toLowerCase();
+                case ARRAY:
+                    String component = typeName(((ArrayType) type).getComponentType());
+                    return component != null ? component + "[]" : null;
+                case WILDCARD:
+                    WildcardType wildcard = (WildcardType) type;
+                    if (wildcard.getExtendsBound() != null) {
+                        String bound = typeName(wildcard.getExtendsBound());
+                        return bound != null ? "? extends " + bound : null;
+                    }
+                    if (wildcard.getSuperBound() != null) {
+                        String bound = typeName(wildcard.getSuperBound());
+                        return bound != null ? "? super " + bound : null;
+                    }
+                    return "?";
+                case DECLARED:
+                    return declaredTypeName((DeclaredType) type);
+                default:
+                    // type variables, unresolved types, etc.
+                    return null;
+            }
+        }
+
+        private String declaredTypeName(DeclaredType type) {
+            TypeElement element = (TypeElement) type.asElement();
+            if (!isAccessible(element)) {
+                return null;
+            }
+
+            // inner classes of parameterized types are not supported
+            TypeMirror enclosing = type.getEnclosingType();
+            if (enclosing.getKind() == TypeKind.DECLARED && !((DeclaredType) enclosing).getTypeArguments().isEmpty()) {
+                return null;
+            }
+
+            StringBuilder name = new StringBuilder(element.getQualifiedName());
+            List<? extends TypeMirror> arguments = type.getTypeArguments();
+            if (!arguments.isEmpty()) {
+                name.append('<');
+                for (int i = 0; i < arguments.size(); i++) {
+                    String argument = typeName(arguments.get(i));
+                    if (argument == null) {
+                        return null;
+                    }
+                    name.append(i > 0 ? ", " : "").append(argument);
+                }
+                name.append('>');
+            }
+
+            return name.toString();
+        }
+
+        private boolean isGeneric(TypeMirror type) {
+            switch (type.getKind()) {
+                case ARRAY:
+                    return isGeneric(((ArrayType) type).getComponentType());
+                case DECLARED:
+                    return !((DeclaredType) type).getTypeArguments().isEmpty();
+                default:
+                    return false;
+            }
+        }
+
+        private boolean isAccessible(Element member, TypeElement declaringType) {
+            Set<Modifier> modifiers = member.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+
+            // protected members of the classes from other packages are not accessible from the factory
+            return modifiers.contains(Modifier.PUBLIC) && isAccessible(declaringType) || isSamePackage(declaringType);
+        }
+
+        private boolean isAccessible(TypeElement type) {
+            for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+                Set<Modifier> modifiers = e.getModifiers();
+                if (modifiers.contains(Modifier.PRIVATE)) {
+                    return false;
+                }
+
+                if (!modifiers.contains(Modifier.PUBLIC) && !isSamePackage((TypeElement) e)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isSamePackage(TypeElement type) {
+            return env.getElementUtils().getPackageOf(type).getQualifiedName().contentEquals(packageName);
+        }
+
+        private boolean isQualifier(TypeElement annotationType) {
+            for (AnnotationMirror annotation : annotationType.getAnnotationMirrors()) {
+                TypeElement metaAnnotation = (TypeElement) annotation.getAnnotationType().asElement();
+                if (metaAnnotation.getQualifiedName().contentEquals(QUALIFIER)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isInjectable(Element element) {
+            for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+                TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+                if (annotationType.getQualifiedName().contentEquals(FactoryProcessor.INJECT)
+                        || annotationType.getQualifiedName().contentEquals(FactoryProcessor.BQ_INJECT)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // binary name with '$' kept, e.g. "Outer$Inner_BQFactory" for "Outer$Inner", so that it doesn't clash with
+        // a factory of a top-level "Outer_Inner" class
+        private String factoryName() {
+            String binaryName = env.getElementUtils().getBinaryName(type).toString();
+            String simpleBinaryName = packageName.isEmpty()
+                    ? binaryName
+                    : binaryName.substring(packageName.length() + 1);
+            return simpleBinaryName + FACTORY_SUFFIX;
+        }
+    }
+}
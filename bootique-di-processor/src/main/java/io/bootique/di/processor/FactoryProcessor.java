@@ -0,0 +1,101 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor that generates a {@code io.bootique.di.spi.GeneratedFactory} for each class with
+ * {@code @Inject} or {@code @BQInject} members. A factory is only generated when the class can be created and
+ * injected without reflection, i.e. its injectable constructor and all injectable fields (including the inherited
+ * ones) are accessible from the class package, and none of the injected types depend on type variables. Other
+ * classes are silently skipped and are handled by the reflective injection at runtime.
+ * <p>
+ * Note that the processor doesn't depend on bootique-di and references its types by name only.
+ */
+public class FactoryProcessor extends AbstractProcessor {
+
+    static final String INJECT = "javax.inject.Inject";
+    static final String BQ_INJECT = "io.bootique.di.BQInject";
+
+    private final Set<String> processedTypes = new HashSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(INJECT, BQ_INJECT);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        // collect classes declaring injectable members, preserving the source order
+        Map<String, TypeElement> types = new LinkedHashMap<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                Element enclosing = element.getEnclosingElement();
+                if (enclosing instanceof TypeElement) {
+                    TypeElement type = (TypeElement) enclosing;
+                    types.putIfAbsent(type.getQualifiedName().toString(), type);
+                }
+            }
+        }
+
+        for (Map.Entry<String, TypeElement> e : types.entrySet()) {
+            if (processedTypes.add(e.getKey())) {
+                FactoryModel model = FactoryModel.build(e.getValue(), processingEnv);
+                if (model != null) {
+                    write(model, e.getValue());
+                }
+            }
+        }
+
+        // let other processors see the same annotations
+        return false;
+    }
+
+    private void write(FactoryModel model, TypeElement type) {
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(model.getFactoryQualifiedName(), type);
+            try (Writer out = file.openWriter()) {
+                new FactoryWriter(model, processingEnv).write(out);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Error generating factory " + model.getFactoryQualifiedName() + ": " + e.getMessage(), type);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.bootique.di.processor.FactoryModel.Dependency;
+import io.bootique.di.processor.FactoryModel.InjectedField;
+
+/**
+ * Writes the source of a generated factory. All types are referenced by their qualified names to avoid clashes
+ * with the user types.
+ */
+class FactoryWriter {
+
+    private static final String GENERATED = "javax.annotation.processing.Generated";
+
+    private final FactoryModel model;
+    private final ProcessingEnvironment env;
+
+    FactoryWriter(FactoryModel model, ProcessingEnvironment env) {
+        this.model = model;
+        this.env = env;
+    }
+
+    void write(Writer out) throws IOException {
+        List<Dependency> keys = new ArrayList<>(model.getConstructorParameters());
+        model.getFields().forEach(f -> keys.add(f.getDependency()));
+
+        StringBuilder source = new StringBuilder();
+        if (!model.getPackageName().isEmpty()) {
+            source.append("package ").append(model.getPackageName()).append(";\n\n");
+        }
+
+        // @Generated is not available when compiling for Java 8
+        if (env.getElementUtils().getTypeElement(GENERATED) != null) {
+            source.append("@").append(GENERATED).append("(\"").append(FactoryProcessor.class.getName()).append("\")\n");
+        }
+
+        source.append("@SuppressWarnings(\"unchecked\")\n")
+                .append("public final class ").append(model.getFactoryName())
+                .append(" implements io.bootique.di.spi.GeneratedFactory<").append(model.getTypeName()).append("> {\n\n");
+
+        for (int i = 0; i < keys.size(); i++) {
+            source.append("    private static final io.bootique.di.Key<?> KEY_").append(i).append(" = ")
+                    .append(keyExpression(keys.get(i))).append(";\n");
+        }
+        if (!keys.isEmpty()) {
+            source.append("\n");
+        }
+
+        source.append("    @Override\n")
+                .append("    public ").append(model.getTypeName()).append(" newInstance(io.bootique.di.Injector injector) {\n")
+                .append("        return new ").append(model.getTypeName()).append("(");
+
+        List<Dependency> parameters = model.getConstructorParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            source.append(i > 0 ? "," : "").append("\n                ").append(valueExpression(parameters.get(i), i));
+        }
+
+        source.append(");\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public void injectMembers(").append(model.getTypeName()).append(" object, io.bootique.di.Injector injector) {\n");
+
+        List<InjectedField> fields = model.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            InjectedField field = fields.get(i);
+            source.append("        ");
+            if (field.isInherited()) {
+                source.append("((").append(field.getDeclaringType()).append(") object)");
+            } else {
+                source.append("object");
+            }
+            source.append('.').append(field.getName()).append(" = ")
+                    .append(valueExpression(field.getDependency(), parameters.size() + i)).append(";\n");
+        }
+
+        source.append("    }\n")
+                .append("}\n");
+
+        out.write(source.toString());
+    }
+
+    private String keyExpression(Dependency dependency) {
+        StringBuilder key = new StringBuilder("io.bootique.di.Key.get(");
+
+        if (dependency.isKeyTypeGeneric()) {
+            key.append("new io.bootique.di.TypeLiteral<").append(dependency.getKeyType()).append(">() {}");
+        } else {
+            key.append(dependency.getKeyType()).append(".class");
+        }
+
+        if (dependency.getBindingName() != null) {
+            key.append(", ").append(env.getElementUtils().getConstantExpression(dependency.getBindingName()));
+        } else if (dependency.getQualifier() != null) {
+            key.append(", ").append(dependency.getQualifier()).append(".class");
+        }
+
+        return key.append(")").toString();
+    }
+
+    private String valueExpression(Dependency dependency, int keyIndex) {
+        String method = dependency.isProvider() ? "getProvider" : "getInstance";
+        return "(" + dependency.getType() + ") injector." + method + "(KEY_" + keyIndex + ")";
+    }
+}
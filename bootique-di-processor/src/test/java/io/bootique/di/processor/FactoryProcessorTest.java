@@ -0,0 +1,196 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.processor;
+
+import io.bootique.di.DIBootstrap;
+import io.bootique.di.Injector;
+import io.bootique.di.Key;
+import io.bootique.di.TypeLiteral;
+import io.bootique.di.spi.GeneratedFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.inject.Inject;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FactoryProcessorTest {
+
+    @TempDir
+    Path out;
+
+    @Test
+    public void generateFactory() throws Exception {
+        compile(
+                source("test.Base", "package test;\n" +
+                        "public class Base {\n" +
+                        "    @javax.inject.Inject Dependency baseDependency;\n" +
+                        "}"),
+                source("test.Dependency", "package test;\n" +
+                        "public class Dependency {\n" +
+                        "    public String toString() { return \"dep\"; }\n" +
+                        "}"),
+                source("test.Service", "package test;\n" +
+                        "import javax.inject.*;\n" +
+                        "import java.util.List;\n" +
+                        "public class Service extends Base {\n" +
+                        "    private final Dependency dependency;\n" +
+                        "    private final String name;\n" +
+                        "    @Inject Provider<List<String>> list;\n" +
+                        "    @Inject\n" +
+                        "    public Service(Dependency dependency, @Named(\"x\") String name) {\n" +
+                        "        this.dependency = dependency;\n" +
+                        "        this.name = name;\n" +
+                        "    }\n" +
+                        "    public String toString() { return dependency + \":\" + name + \":\" + list.get() + \":\" + baseDependency; }\n" +
+                        "}"));
+
+        assertTrue(Files.exists(out.resolve("test/Service_BQFactory.java")));
+        assertTrue(Files.exists(out.resolve("test/Base_BQFactory.java")));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{out.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> serviceType = loader.loadClass("test.Service");
+
+            Injector injector = DIBootstrap.injectorBuilder(b -> {
+                        b.bind(Key.get(String.class, "x")).toInstance("xv");
+                        b.bind(Key.get(new TypeLiteral<List<String>>() {})).toInstance(List.of("a", "b"));
+                    })
+                    .enableGeneratedFactories()
+                    .build();
+
+            @SuppressWarnings("unchecked")
+            GeneratedFactory<Object> factory = (GeneratedFactory<Object>) loader.loadClass("test.Service_BQFactory")
+                    .getConstructor()
+                    .newInstance();
+
+            Object service = factory.newInstance(injector);
+            factory.injectMembers(service, injector);
+            assertEquals("dep:xv:[a, b]:dep", service.toString());
+
+            assertEquals("dep:xv:[a, b]:dep", injector.getInstance(serviceType).toString());
+        }
+    }
+
+    @Test
+    public void skipInaccessibleMembers() throws Exception {
+        compile(
+                source("test.PrivateField", "package test;\n" +
+                        "public class PrivateField {\n" +
+                        "    @javax.inject.Inject private String value;\n" +
+                        "}"),
+                source("test.PrivateConstructor", "package test;\n" +
+                        "public class PrivateConstructor {\n" +
+                        "    @javax.inject.Inject private PrivateConstructor(String value) {}\n" +
+                        "}"),
+                source("test.Generic", "package test;\n" +
+                        "public class Generic<T> {\n" +
+                        "    @javax.inject.Inject T value;\n" +
+                        "}"),
+                source("test.Nested", "package test;\n" +
+                        "public class Nested {\n" +
+                        "    public static class Static { @javax.inject.Inject String value; }\n" +
+                        "    public class Inner { @javax.inject.Inject String value; }\n" +
+                        "}"));
+
+        assertFalse(Files.exists(out.resolve("test/PrivateField_BQFactory.java")));
+        assertFalse(Files.exists(out.resolve("test/PrivateConstructor_BQFactory.java")));
+        assertFalse(Files.exists(out.resolve("test/Generic_BQFactory.java")));
+        assertFalse(Files.exists(out.resolve("test/Nested$Inner_BQFactory.java")));
+        assertTrue(Files.exists(out.resolve("test/Nested$Static_BQFactory.java")));
+    }
+
+    @Test
+    public void nestedAndTopLevelNamesDontClash() throws Exception {
+        compile(
+                source("test.Outer", "package test;\n" +
+                        "public class Outer {\n" +
+                        "    public static class Inner {\n" +
+                        "        @javax.inject.Inject String value;\n" +
+                        "        public String toString() { return \"nested:\" + value; }\n" +
+                        "    }\n" +
+                        "}"),
+                source("test.Outer_Inner", "package test;\n" +
+                        "public class Outer_Inner {\n" +
+                        "    @javax.inject.Inject String value;\n" +
+                        "    public String toString() { return \"top-level:\" + value; }\n" +
+                        "}"));
+
+        assertTrue(Files.exists(out.resolve("test/Outer$Inner_BQFactory.java")));
+        assertTrue(Files.exists(out.resolve("test/Outer_Inner_BQFactory.java")));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{out.toUri().toURL()}, getClass().getClassLoader())) {
+            Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(String.class).toInstance("v"))
+                    .enableGeneratedFactories()
+                    .build();
+            assertEquals("nested:v", injector.getInstance(loader.loadClass("test.Outer$Inner")).toString());
+            assertEquals("top-level:v", injector.getInstance(loader.loadClass("test.Outer_Inner")).toString());
+        }
+    }
+
+    private void compile(JavaFileObject... sources) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        List<String> options = new ArrayList<>();
+        options.add("-classpath");
+        options.add(classpath(Injector.class, Inject.class));
+        options.add("-d");
+        options.add(out.toString());
+        options.add("-s");
+        options.add(out.toString());
+
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null, List.of(sources));
+        task.setProcessors(List.of(new FactoryProcessor()));
+
+        assertTrue(task.call(), () -> "Compilation failed: " + diagnostics.getDiagnostics());
+    }
+
+    // test classpath may be hidden in a manifest-only jar, so locate dependencies via their classes
+    private static String classpath(Class<?>... types) throws Exception {
+        List<String> entries = new ArrayList<>();
+        for (Class<?> type : types) {
+            entries.add(new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static JavaFileObject source(String className, String source) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+    }
+}
@@ -19,6 +19,8 @@
 
 package io.bootique.di;
 
+import io.bootique.di.spi.CountingInjectorMetrics;
+import io.bootique.di.spi.InjectorMetrics;
 import io.bootique.di.spi.InjectorPredicates;
 import io.bootique.di.spi.DefaultInjector;
 
@@ -87,6 +89,7 @@ public class DIBootstrap {
     public static class InjectorBuilder {
         private Set<DefaultInjector.Options> options;
         private InjectorPredicates injectorPredicates;
+        private InjectorMetrics metrics;
         private BQModule[] modules;
 
         private InjectorBuilder(BQModule... modules) {
@@ -161,6 +164,113 @@ public class DIBootstrap {
             return this;
         }
 
+        /**
+         * Use core reflection instead of method handles to create objects, inject fields and methods
+         * and call provider methods. Method handles are used by default.
+         *
+         * @return this
+         */
+        public InjectorBuilder disableMethodHandles() {
+            options.add(DefaultInjector.Options.DISABLE_METHOD_HANDLES);
+            return this;
+        }
+
+        /**
+         * Use factories generated by the "bootique-di-processor" annotation processor to create objects and inject
+         * their fields, falling back to reflection for classes without generated factories. Generated factories
+         * only recognize standard injection annotations, so they can't be used together with custom inject,
+         * qualifier or provider predicates, and the injector fails to build if both are set. Disabled by default.
+         *
+         * @return this
+         * @see io.bootique.di.spi.GeneratedFactory
+         */
+        public InjectorBuilder enableGeneratedFactories() {
+            options.add(DefaultInjector.Options.ENABLE_GENERATED_FACTORIES);
+            return this;
+        }
+
+        /**
+         * Freeze injector bindings once the injector is created and all eager singletons are initialized. Frozen
+         * bindings are copied to a compact immutable table with faster lookups and can't be replaced. Dynamic
+         * bindings created later are still supported, but are looked up via the slower path. Disabled by default.
+         *
+         * @return this
+         */
+        public InjectorBuilder freezeBindings() {
+            options.add(DefaultInjector.Options.FREEZE_BINDINGS);
+            return this;
+        }
+
+        /**
+         * Initialize services marked with {@link ScopeBuilder#initOnStartup()} in parallel, on a temporary thread pool
+         * sized by the number of CPUs. Services with shared dependencies wait for each other, independent ones are
+         * created concurrently. Services that fail in parallel are retried sequentially, so the reported error is the
+         * same as without this option. Disabled by default.
+         *
+         * @return this
+         */
+        public InjectorBuilder parallelEarlySetup() {
+            options.add(DefaultInjector.Options.PARALLEL_EARLY_SETUP);
+            return this;
+        }
+
+        /**
+         * Check all the bindings and their constructor, field, method and provider method dependencies when the
+         * injector is created, before any services are initialized. Missing bindings, bad qualifiers, unresolvable
+         * generic types and circular dependencies that can't be broken with a proxy are reported together in a single
+         * exception. Objects are not created by the check, so problems inside constructors and providers are still
+         * reported at injection time. Disabled by default.
+         *
+         * @return this
+         */
+        public InjectorBuilder validateOnBuild() {
+            options.add(DefaultInjector.Options.VALIDATE_ON_BUILD);
+            return this;
+        }
+
+        /**
+         * Count instances created by each binding and measure their creation time, including and excluding the
+         * creation of their dependencies. Collected values are included in the exported binding graph. Adds a small
+         * overhead to each instance creation, so disabled by default.
+         *
+         * @return this
+         * @see DefaultInjector#exportGraphAsJson()
+         * @see DefaultInjector#exportGraphAsDot()
+         */
+        public InjectorBuilder enableInstrumentation() {
+            options.add(DefaultInjector.Options.ENABLE_INSTRUMENTATION);
+            return this;
+        }
+
+        /**
+         * Collect timings of the injector startup: configuration and provider method scanning of each module,
+         * application of decorators, validation and creation of each service marked with
+         * {@link ScopeBuilder#initOnStartup()}. Service creation time is measured with the instrumentation, so this
+         * option also enables it, but only until the injector is built. Disabled by default.
+         *
+         * @return this
+         * @see DefaultInjector#getStartupReport()
+         */
+        public InjectorBuilder profileStartup() {
+            options.add(DefaultInjector.Options.PROFILE_STARTUP);
+            return this;
+        }
+
+        /**
+         * Collect per-binding metrics: resolutions, created instances, creation failures and creation time. Metrics
+         * are passed to a pluggable {@link InjectorMetrics} collector, {@link CountingInjectorMetrics} keeps them in
+         * striped counters that don't contend when the same binding is resolved concurrently, and can be read with
+         * {@link CountingInjectorMetrics#snapshot()}. This option enables the instrumentation.
+         *
+         * @param metrics metrics collector
+         * @return this
+         * @see #enableInstrumentation()
+         */
+        public InjectorBuilder withMetrics(InjectorMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
         /**
          * Set custom predicate for methods in modules that should be used as providers.
          * Default predicate test methods for {@link io.bootique.di.Provides} annotation.
@@ -251,7 +361,7 @@ public class DIBootstrap {
          * @return injector
          */
         public Injector build() {
-            return new DefaultInjector(options, injectorPredicates, modules);
+            return new DefaultInjector(options, injectorPredicates, metrics, modules);
         }
     }
 
@@ -35,11 +35,22 @@ public class Key<T> {
 
     private static final KeyQualifier NO_QUALIFIER = new NoQualifier();
 
+    // nameless keys for plain classes are the most common lookup (e.g. Injector.getInstance(Class)), so they are
+    // created once per class. Other keys are not interned, as a global cache of user-provided keys would be
+    // a source of contention and leaks.
+    private static final ClassValue<Key<?>> CLASS_KEYS = new ClassValue<>() {
+        @Override
+        protected Key<?> computeValue(Class<?> type) {
+            return new Key<>(TypeLiteral.of(type), (String) null);
+        }
+    };
+
     /**
      * Creates a key for a nameless binding of a given type.
      */
+    @SuppressWarnings("unchecked")
     public static <T> Key<T> get(Class<T> type) {
-        return get(TypeLiteral.of(type));
+        return (Key<T>) CLASS_KEYS.get(Objects.requireNonNull(type, "No type"));
     }
 
     /**
@@ -48,6 +59,9 @@ public class Key<T> {
      * binding key is created.
      */
     public static <T> Key<T> get(Class<T> type, String bindingName) {
+        if (bindingName == null || bindingName.isEmpty()) {
+            return get(type);
+        }
         return get(TypeLiteral.of(type), bindingName);
     }
 
@@ -152,6 +166,7 @@ public class Key<T> {
 
     private final TypeLiteral<T> type;
     private final KeyQualifier qualifier;
+    private final int hashCode;
 
     protected Key(TypeLiteral<T> type, String bindingName) {
         this.type = TypeLiteral.normalize(type);
@@ -159,6 +174,7 @@ public class Key<T> {
         this.qualifier = bindingName != null && bindingName.length() > 0
                 ? new NamedKeyQualifier(bindingName)
                 : NO_QUALIFIER;
+        this.hashCode = computeHashCode();
     }
 
     protected Key(TypeLiteral<T> type, Class<? extends Annotation> annotationType) {
@@ -167,6 +183,7 @@ public class Key<T> {
         this.qualifier = annotationType == null
                 ? NO_QUALIFIER
                 : new AnnotationTypeQualifier(annotationType);
+        this.hashCode = computeHashCode();
     }
 
     protected Key(TypeLiteral<T> type, Annotation annotationInstance) {
@@ -182,6 +199,7 @@ public class Key<T> {
             // general case
             this.qualifier = new AnnotationTypeQualifier(annotationInstance.annotationType());
         }
+        this.hashCode = computeHashCode();
     }
 
     public TypeLiteral<T> getType() {
@@ -216,6 +234,11 @@ public class Key<T> {
         if (object instanceof Key<?>) {
             Key<?> key = (Key<?>) object;
 
+            // hash codes are precomputed, so this is the cheapest way to reject a different key
+            if (hashCode != key.hashCode) {
+                return false;
+            }
+
             // type is guaranteed to be not null, so skip null checking...
             if (!type.equals(key.type)) {
                 return false;
@@ -230,6 +253,10 @@ public class Key<T> {
 
     @Override
     public int hashCode() {
+        return hashCode;
+    }
+
+    private int computeHashCode() {
         return 407 + 11 * type.hashCode() + qualifier.hashCode();
     }
 
@@ -39,6 +39,17 @@ public interface ScopeBuilder {
      */
     void withoutScope();
 
+    /**
+     * Sets the scope of a bound instance to "thread". This means that a single instance of an object will be created
+     * per thread. It is a way to inject objects that are not thread-safe without wrapping them in a
+     * {@link ThreadLocal}. {@link BeforeScopeEnd} methods of these instances are called on {@link Injector} shutdown,
+     * as long as the instances are still reachable at that point. Instances of the threads that are already finished
+     * may be garbage collected before that.
+     *
+     * @since 3.0
+     */
+    void inThreadScope();
+
     /**
      * Marks this injection point to be triggered early without explicit call to {@link Injector#getInstance(Class)}.
      * Such service will be created right after {@link Injector} is fully setup.
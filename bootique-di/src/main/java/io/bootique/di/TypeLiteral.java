@@ -43,15 +43,30 @@ public class TypeLiteral<T> {
 
     private static final Class<?> WILDCARD_MARKER = WildcardMarker.class;
 
+    // literals for plain classes are immutable and requested all the time, so keep one per class. ClassValue stores
+    // them with the class itself, so this cache doesn't prevent class unloading
+    private static final ClassValue<TypeLiteral<?>> CLASS_LITERALS = new ClassValue<>() {
+        @Override
+        protected TypeLiteral<?> computeValue(Class<?> type) {
+            return new TypeLiteral<>((Type) type);
+        }
+    };
+
     private final Class<? super T> type;
     private final String typeName;
     private final String[] argumentTypes;
+    private final int hashCode;
 
+    @SuppressWarnings("unchecked")
     public static <T> TypeLiteral<T> of(Class<T> type) {
-        return new TypeLiteral<>(type);
+        return (TypeLiteral<T>) CLASS_LITERALS.get(Objects.requireNonNull(type, "No type"));
     }
 
+    @SuppressWarnings("unchecked")
     public static <T> TypeLiteral<T> of(Type type) {
+        if (type instanceof Class) {
+            return (TypeLiteral<T>) CLASS_LITERALS.get((Class<?>) type);
+        }
         return new TypeLiteral<>(type);
     }
 
@@ -136,6 +151,7 @@ public class TypeLiteral<T> {
         Type[] argumentTypes = getArgumentTypes(genericType);
         this.argumentTypes = new String[argumentTypes.length];
         initArgumentTypes(argumentTypes);
+        this.hashCode = computeHashCode();
     }
 
     @SuppressWarnings("unchecked")
@@ -145,12 +161,14 @@ public class TypeLiteral<T> {
         Type[] argumentTypes = getArgumentTypes(type);
         this.argumentTypes = new String[argumentTypes.length];
         initArgumentTypes(argumentTypes);
+        this.hashCode = computeHashCode();
     }
 
     private TypeLiteral(Class<? super T> type, String... argumentTypes) {
         this.type = type;
         this.typeName = type.getName();
         this.argumentTypes = argumentTypes;
+        this.hashCode = computeHashCode();
     }
 
     private TypeLiteral(Class<? super T> type, Type... argumentsType) {
@@ -158,6 +176,7 @@ public class TypeLiteral<T> {
         this.typeName = type.getName();
         this.argumentTypes = new String[argumentsType.length];
         initArgumentTypes(argumentsType);
+        this.hashCode = computeHashCode();
     }
 
     private void initArgumentTypes(Type... argumentsType) {
@@ -190,6 +209,10 @@ public class TypeLiteral<T> {
         }
 
         TypeLiteral<?> that = (TypeLiteral<?>) o;
+        // cheap check first, most of the unequal literals are rejected here
+        if (hashCode != that.hashCode) {
+            return false;
+        }
         if (!typeName.equals(that.typeName)) {
             return false;
         }
@@ -198,6 +221,10 @@ public class TypeLiteral<T> {
 
     @Override
     public int hashCode() {
+        return hashCode;
+    }
+
+    private int computeHashCode() {
         int result = typeName.hashCode();
         result = 31 * result + Arrays.hashCode(argumentTypes);
         return result;
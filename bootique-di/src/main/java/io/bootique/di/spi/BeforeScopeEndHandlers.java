@@ -0,0 +1,98 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.BeforeScopeEnd;
+import io.bootique.di.DIRuntimeException;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Calls {@link BeforeScopeEnd} methods of the objects directly, without registering them as scope event listeners.
+ * Used by the scopes that track their instances themselves. Handler methods are resolved once per class.
+ */
+class BeforeScopeEndHandlers {
+
+    /**
+     * Handlers called with core reflection, the same default as {@link DefaultScope} has for scopes not owned by
+     * the injector.
+     */
+    static final BeforeScopeEndHandlers DEFAULT = new BeforeScopeEndHandlers(ReflectionInvokerFactory.INSTANCE);
+
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final InvokerFactory.MethodInvoker[] NO_HANDLERS = new InvokerFactory.MethodInvoker[0];
+
+    private final InvokerFactory invokerFactory;
+    private final ClassValue<InvokerFactory.MethodInvoker[]> handlers = new ClassValue<>() {
+        @Override
+        protected InvokerFactory.MethodInvoker[] computeValue(Class<?> type) {
+            return findHandlers(type);
+        }
+    };
+
+    BeforeScopeEndHandlers(InvokerFactory invokerFactory) {
+        this.invokerFactory = invokerFactory;
+    }
+
+    /**
+     * Calls all {@link BeforeScopeEnd} methods of the object. A failure of any of them doesn't stop the others, and
+     * is either returned or, if there was a failure before, added to it as suppressed.
+     *
+     * @return a failure passed to this method, or a new failure if there was none, or null if all calls succeeded
+     */
+    DIRuntimeException invoke(Object instance, DIRuntimeException failure) {
+        for (InvokerFactory.MethodInvoker handler : handlers.get(instance.getClass())) {
+            try {
+                handler.invoke(instance, NO_ARGS);
+            } catch (Exception e) {
+                DIRuntimeException handlerFailure = new DIRuntimeException(
+                        "Error invoking @BeforeScopeEnd method of %s", e, instance.getClass().getName());
+                if (failure == null) {
+                    failure = handlerFailure;
+                } else {
+                    failure.addSuppressed(handlerFailure);
+                }
+            }
+        }
+        return failure;
+    }
+
+    private InvokerFactory.MethodInvoker[] findHandlers(Class<?> type) {
+
+        List<InvokerFactory.MethodInvoker> handlers = null;
+
+        // 'getMethods' grabs public method from the class and its superclasses...
+        for (Method method : type.getMethods()) {
+            if (method.isAnnotationPresent(BeforeScopeEnd.class)) {
+                if (handlers == null) {
+                    handlers = new ArrayList<>(2);
+                }
+
+                // allow public methods of non-public classes to be annotated
+                method.setAccessible(true);
+                handlers.add(invokerFactory.methodInvoker(method));
+            }
+        }
+
+        return handlers != null ? handlers.toArray(NO_HANDLERS) : NO_HANDLERS;
+    }
+}
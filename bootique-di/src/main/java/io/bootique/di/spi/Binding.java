@@ -33,6 +33,7 @@ class Binding<T> {
 
     private final Key<T> key;
     private final Provider<T> original;
+    private final BindingStats stats;
 
     private Provider<T> decorated;
     private Provider<T> scoped;
@@ -40,10 +41,18 @@ class Binding<T> {
     private boolean optional;
 
     Binding(Key<T> key, Provider<T> provider, Scope initialScope, boolean optional) {
+        this(key, provider, initialScope, optional, null);
+    }
+
+    /**
+     * @param stats instance creation statistics to collect, or null if the injector is not instrumented
+     */
+    Binding(Key<T> key, Provider<T> provider, Scope initialScope, boolean optional, BindingStats stats) {
         this.key = key;
         this.original = provider;
         this.decorated = provider;
         this.optional = optional;
+        this.stats = stats;
 
         changeScope(initialScope);
     }
@@ -59,7 +68,7 @@ class Binding<T> {
         // TODO: what happens to the old scoped value? Seems like this leaks
         // scope event listeners and may cause unexpected events...
 
-        this.scoped = scope.scope(original);
+        this.scoped = scopeInstrumented(scope, original);
         this.scope = scope;
     }
 
@@ -80,7 +89,12 @@ class Binding<T> {
         // TODO: what happens to the old scoped value? Seems like this leaks
         // scope event listeners and may cause unexpected events...
 
-        this.scoped = scope.scope(decorated);
+        this.scoped = scopeInstrumented(scope, decorated);
+    }
+
+    private Provider<T> scopeInstrumented(Scope scope, Provider<T> provider) {
+        // measure below the scope, so that only the actual instance creation is counted
+        return scope.scope(stats != null && provider != null ? stats.instrument(provider) : provider);
     }
 
     Provider<T> getOriginal() {
@@ -106,4 +120,11 @@ class Binding<T> {
     Key<T> getKey() {
         return key;
     }
+
+    /**
+     * @return resolution and instance creation statistics or null if the injector is not instrumented
+     */
+    BindingStats getStats() {
+        return stats;
+    }
 }
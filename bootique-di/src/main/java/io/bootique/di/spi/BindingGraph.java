@@ -0,0 +1,317 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.Key;
+import io.bootique.di.Scope;
+import io.bootique.di.spi.BindingIntrospector.BindingDescription;
+import io.bootique.di.spi.BindingIntrospector.Dependency;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A snapshot of the injector binding graph for export. Nodes are all the bindings of the injector, followed by the
+ * unbound keys they depend on. Edges are dependencies of the bindings, Provider dependencies are marked as such, as
+ * they don't require the dependency to be created together with the dependent object.
+ *
+ * @see DefaultInjector#exportGraphAsJson()
+ * @see DefaultInjector#exportGraphAsDot()
+ */
+class BindingGraph {
+
+    private final List<Node> nodes;
+    private final List<Edge> edges;
+
+    private BindingGraph(List<Node> nodes, List<Edge> edges) {
+        this.nodes = nodes;
+        this.edges = edges;
+    }
+
+    static BindingGraph build(DefaultInjector injector) {
+        BindingIntrospector introspector = new BindingIntrospector(injector);
+        Map<Key<?>, Binding<?>> bindings = injector.getAllBindings();
+        Set<Key<?>> earlySetupKeys = injector.getEarlySetupKeys();
+
+        // sort the keys to make the output stable
+        List<Key<?>> keys = new ArrayList<>(bindings.keySet());
+        keys.sort(Comparator.comparing(Key::toString));
+
+        Map<Key<?>, Node> nodes = new LinkedHashMap<>();
+        List<BindingDescription> descriptions = new ArrayList<>(keys.size());
+        for (Key<?> key : keys) {
+            Binding<?> binding = bindings.get(key);
+            if (binding == null) {
+                // removed concurrently
+                continue;
+            }
+
+            BindingDescription description = introspector.describe(key);
+            descriptions.add(description);
+            nodes.put(key, new Node(nodes.size(), description, binding, scopeName(injector, binding.getScope()),
+                    earlySetupKeys.contains(key)));
+        }
+
+        List<Edge> edges = new ArrayList<>();
+        Set<String> edgeIds = new HashSet<>();
+        for (BindingDescription description : descriptions) {
+            Node from = nodes.get(description.getKey());
+            for (Dependency dependency : description.getDependencies()) {
+                Node to = nodes.computeIfAbsent(dependency.getKey(), k -> new Node(nodes.size(), k));
+
+                // several injection points of the same dependency are shown as a single edge
+                if (edgeIds.add(from.id + ":" + to.id + ":" + dependency.isProvider())) {
+                    edges.add(new Edge(from, to, dependency.isProvider(), dependency.getOrigin()));
+                }
+            }
+        }
+
+        return new BindingGraph(new ArrayList<>(nodes.values()), edges);
+    }
+
+    private static String scopeName(DefaultInjector injector, Scope scope) {
+        if (scope == injector.getSingletonScope()) {
+            return "singleton";
+        } else if (scope == injector.getThreadScope()) {
+            return "thread";
+        } else if (scope == injector.getNoScope()) {
+            return "none";
+        }
+        return scope.getClass().getName();
+    }
+
+    String toJson() {
+        StringBuilder out = new StringBuilder(256 * nodes.size());
+        out.append("{\n  \"nodes\": [");
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            out.append(i > 0 ? ",\n" : "\n").append("    {\"id\": ").append(node.id);
+            out.append(", \"key\": ");
+            appendJsonString(out, node.key.toString());
+            out.append(", \"bound\": ").append(node.bound);
+            out.append(", \"kind\": ");
+            appendJsonString(out, node.kind);
+            out.append(", \"scope\": ");
+            appendJsonString(out, node.scope);
+            out.append(", \"implementation\": ");
+            appendJsonString(out, node.implementation != null ? node.implementation.getName() : null);
+            out.append(", \"decorators\": [");
+            for (int j = 0; j < node.decorators.size(); j++) {
+                if (j > 0) {
+                    out.append(", ");
+                }
+                appendJsonString(out, node.decorators.get(j).getName());
+            }
+            out.append("], \"eager\": ").append(node.eager);
+            out.append(", \"optional\": ").append(node.optional);
+            if (node.stats != null) {
+                out.append(", \"instances\": ").append(node.stats.getInstances());
+                out.append(", \"creationNanos\": ").append(node.stats.getCreationNanos());
+                out.append(", \"selfCreationNanos\": ").append(node.stats.getSelfCreationNanos());
+                out.append(", \"resolutions\": ").append(node.stats.getResolutions());
+                out.append(", \"failures\": ").append(node.stats.getFailures());
+            }
+            out.append('}');
+        }
+
+        out.append("\n  ],\n  \"edges\": [");
+        for (int i = 0; i < edges.size(); i++) {
+            Edge edge = edges.get(i);
+            out.append(i > 0 ? ",\n" : "\n").append("    {\"from\": ").append(edge.from.id)
+                    .append(", \"to\": ").append(edge.to.id)
+                    .append(", \"provider\": ").append(edge.provider)
+                    .append(", \"origin\": ");
+            appendJsonString(out, edge.origin);
+            out.append('}');
+        }
+        out.append("\n  ]\n}\n");
+        return out.toString();
+    }
+
+    String toDot() {
+        StringBuilder out = new StringBuilder(128 * nodes.size());
+        out.append("digraph injector {\n");
+        out.append("  node [shape=box, fontname=\"Helvetica\", fontsize=10];\n");
+        for (Node node : nodes) {
+            StringBuilder label = new StringBuilder(node.key.getType().toString());
+            if (node.key.getBindingName() != null) {
+                label.append(" '").append(node.key.getBindingName()).append('\'');
+            } else if (node.key.getBindingAnnotation() != null) {
+                label.append(" @").append(node.key.getBindingAnnotation().getSimpleName());
+            }
+            label.append('\n').append(node.kind);
+            if (node.scope != null) {
+                label.append(", scope: ").append(node.scope);
+            }
+            if (node.implementation != null && !node.implementation.getName().equals(node.key.getType().toString())) {
+                label.append('\n').append(node.implementation.getName());
+            }
+            for (Class<?> decorator : node.decorators) {
+                label.append("\ndecorated by ").append(decorator.getName());
+            }
+            if (node.stats != null) {
+                label.append(String.format(Locale.ROOT, "\ninstances: %d, time: %.3f ms, self: %.3f ms",
+                        node.stats.getInstances(),
+                        node.stats.getCreationNanos() / 1_000_000.0,
+                        node.stats.getSelfCreationNanos() / 1_000_000.0));
+            }
+
+            out.append("  n").append(node.id).append(" [label=");
+            appendDotString(out, label.toString());
+            if (node.eager) {
+                out.append(", style=bold");
+            } else if (!node.bound) {
+                out.append(", style=dotted");
+            }
+            out.append("];\n");
+        }
+
+        for (Edge edge : edges) {
+            out.append("  n").append(edge.from.id).append(" -> n").append(edge.to.id);
+            if (edge.provider) {
+                out.append(" [style=dashed]");
+            }
+            out.append(";\n");
+        }
+        out.append("}\n");
+        return out.toString();
+    }
+
+    private static void appendJsonString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    private static void appendDotString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private static class Node {
+
+        final int id;
+        final Key<?> key;
+        final boolean bound;
+        final String kind;
+        final String scope;
+        final Class<?> implementation;
+        final List<Class<?>> decorators;
+        final boolean eager;
+        final boolean optional;
+        final BindingStats stats;
+
+        Node(int id, BindingDescription description, Binding<?> binding, String scope, boolean eager) {
+            this.id = id;
+            this.key = description.getKey();
+            this.bound = true;
+            this.kind = description.getKind().name().toLowerCase(Locale.ROOT);
+            this.scope = scope;
+            this.implementation = description.getImplementation();
+            this.decorators = description.getDecorators();
+            this.eager = eager;
+            this.optional = binding.isOptional();
+            this.stats = binding.getStats();
+        }
+
+        /**
+         * Creates a node of a dependency that has no binding yet.
+         */
+        Node(int id, Key<?> key) {
+            this.id = id;
+            this.key = key;
+            this.bound = false;
+            this.kind = BindingIntrospector.ProviderKind.DYNAMIC.name().toLowerCase(Locale.ROOT);
+            this.scope = null;
+            this.implementation = key.getType().getRawType();
+            this.decorators = List.of();
+            this.eager = false;
+            this.optional = false;
+            this.stats = null;
+        }
+    }
+
+    private static class Edge {
+
+        final Node from;
+        final Node to;
+        final boolean provider;
+        final String origin;
+
+        Edge(Node from, Node to, boolean provider, String origin) {
+            this.from = from;
+            this.to = to;
+            this.provider = provider;
+            this.origin = origin;
+        }
+    }
+}
@@ -0,0 +1,465 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.DIRuntimeException;
+import io.bootique.di.Key;
+import io.bootique.di.TypeLiteral;
+import io.bootique.di.spi.FieldInjectionPlan.InjectableField;
+import io.bootique.di.spi.MethodInjectionPlan.InjectableMethod;
+
+import javax.inject.Provider;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Describes injector bindings without creating any objects: what kind of provider is behind each binding, what
+ * class it instantiates and what keys it depends on. Reflection metadata is taken from the same per-class caches
+ * the injector uses for the injection, so introspection warms them up instead of duplicating the work.
+ */
+class BindingIntrospector {
+
+    enum ProviderKind {
+        CONSTRUCTOR,
+        GENERATED_FACTORY,
+        PROVIDES_METHOD,
+        INSTANCE,
+        CUSTOM_PROVIDER,
+        IMPLEMENTATION,
+        SET,
+        MAP,
+        OPTIONAL,
+        DYNAMIC,
+        OTHER
+    }
+
+    private final DefaultInjector injector;
+
+    BindingIntrospector(DefaultInjector injector) {
+        this.injector = injector;
+    }
+
+    /**
+     * Describes a binding of a given key. A key without a binding, or with a binding that has no provider yet, is
+     * described as a dynamic binding that will be created on the first access.
+     */
+    BindingDescription describe(Key<?> key) {
+        BindingDescription description = new BindingDescription(key);
+
+        Binding<?> binding = injector.getAllBindings().get(key);
+        if (binding == null || binding.getOriginal() == null) {
+            Class<?> type = key.getType().getRawType();
+            description.kind = ProviderKind.DYNAMIC;
+            description.implementation = type;
+            if (collectConstructorDependencies(type, null, description)) {
+                collectMemberDependencies(type, null, description);
+            }
+        } else {
+            describeProvider(binding.getOriginal(), description, true);
+        }
+
+        Decoration<?> decoration = injector.getAllDecorations().get(key);
+        if (decoration != null) {
+            for (DecoratorProvider<?> decorator : decoration.decorators()) {
+                describeDecorator(decorator, description);
+            }
+        }
+
+        return description;
+    }
+
+    /**
+     * @param top whether this is a provider of the binding itself, and not of an element of a collection
+     */
+    private void describeProvider(Provider<?> provider, BindingDescription description, boolean top) {
+
+        boolean injectMembers = false;
+        Provider<?> unwrapped = provider;
+        while (true) {
+            if (unwrapped instanceof TraceableProvider) {
+                unwrapped = ((TraceableProvider<?>) unwrapped).unwrap();
+            } else if (unwrapped instanceof MemberInjectingProvider) {
+                injectMembers = true;
+                unwrapped = ((MemberInjectingProvider<?>) unwrapped).getDelegate();
+            } else {
+                break;
+            }
+        }
+
+        ProviderKind kind;
+        Class<?> implementation = null;
+        // type of the object created by the provider, if known
+        Class<?> objectType = null;
+
+        if (unwrapped instanceof ConstructorInjectingProvider) {
+            kind = ProviderKind.CONSTRUCTOR;
+            implementation = objectType = ((ConstructorInjectingProvider<?>) unwrapped).getImplementation();
+            collectConstructorDependencies(implementation, null, description);
+        } else if (unwrapped instanceof GeneratedFactoryProvider) {
+            kind = ProviderKind.GENERATED_FACTORY;
+            implementation = objectType = ((GeneratedFactoryProvider<?>) unwrapped).getImplementation();
+            collectConstructorDependencies(implementation, null, description);
+        } else if (unwrapped instanceof InstanceProvider) {
+            kind = ProviderKind.INSTANCE;
+            implementation = objectType = unwrapped.get().getClass();
+        } else if (unwrapped instanceof ProvidesHandler.ProvidesMethodProvider) {
+            kind = ProviderKind.PROVIDES_METHOD;
+            ProvidesHandler.ProvidesMethodProvider<?> methodProvider = (ProvidesHandler.ProvidesMethodProvider<?>) unwrapped;
+            implementation = methodProvider.getMethod().getReturnType();
+            Key<?>[] keys = methodProvider.getArgumentKeys();
+            for (int i = 0; i < keys.length; i++) {
+                boolean providerArgument = methodProvider.isProviderArgument(i);
+                description.addDependency(keys[i], providerArgument, !providerArgument,
+                        "provider method '%s()' of module '%s'",
+                        methodProvider.getMethod().getName(), methodProvider.getMethod().getDeclaringClass().getName());
+            }
+        } else if (unwrapped instanceof CustomProvidersProvider) {
+            kind = ProviderKind.CUSTOM_PROVIDER;
+            implementation = ((CustomProvidersProvider<?>) unwrapped).getProviderType();
+            describeCustomProvider((CustomProvidersProvider<?>) unwrapped, description);
+        } else if (unwrapped instanceof DefaultBindingBuilder.ImplementationProvider) {
+            kind = ProviderKind.IMPLEMENTATION;
+            Key<?> implementationKey = ((DefaultBindingBuilder.ImplementationProvider<?>) unwrapped).getImplementationKey();
+            implementation = implementationKey.getType().getRawType();
+            // implementation is resolved bypassing the injection stack, so the proxy can't be created for it
+            description.addDependency(implementationKey, false, false, "binding of key %s", description.getKey());
+        } else if (unwrapped instanceof DICollectionBuilder.ElementProvider) {
+            kind = ProviderKind.OTHER;
+            Key<?> elementKey = ((DICollectionBuilder.ElementProvider<?>) unwrapped).getKey();
+            description.addDependency(elementKey, false, true, "collection %s", description.getKey());
+        } else if (unwrapped instanceof SetProvider) {
+            kind = ProviderKind.SET;
+            describeElements(((SetProvider<?>) unwrapped).getProviders(), description);
+        } else if (unwrapped instanceof MapProvider) {
+            kind = ProviderKind.MAP;
+            describeElements(((MapProvider<?, ?>) unwrapped).getProviders(), description);
+        } else if (unwrapped == OptionalBindingBuilder.NULL_PROVIDER) {
+            kind = ProviderKind.OPTIONAL;
+        } else {
+            // some opaque provider, e.g. a user-provided one, its dependencies are unknown
+            kind = ProviderKind.OTHER;
+        }
+
+        if (injectMembers && objectType != null) {
+            collectMemberDependencies(objectType, null, description);
+        }
+
+        if (top) {
+            description.kind = kind;
+            description.implementation = implementation;
+        }
+    }
+
+    private void describeElements(Collection<? extends Provider<?>> elements, BindingDescription description) {
+        for (Provider<?> element : elements) {
+            describeProvider(element, description, false);
+        }
+    }
+
+    private void describeCustomProvider(CustomProvidersProvider<?> provider, BindingDescription description) {
+
+        Provider<?> providerOfProviders = provider.getProviderOfProviders();
+        while (providerOfProviders instanceof MemberInjectingProvider) {
+            providerOfProviders = ((MemberInjectingProvider<?>) providerOfProviders).getDelegate();
+        }
+
+        // provider instance bound via "toProviderInstance()", only its members are injected
+        if (providerOfProviders instanceof InstanceProvider) {
+            collectMemberDependencies(providerOfProviders.get().getClass(), null, description);
+            return;
+        }
+
+        // otherwise provider is either bound explicitly, or created with constructor injection
+        Class<?> providerType = provider.getProviderType();
+        Key<?> providerKey = Key.get(providerType);
+        Binding<?> binding = injector.getAllBindings().get(providerKey);
+        if (binding != null && binding.getOriginal() != null) {
+            description.addDependency(providerKey, false, false, "custom provider of type %s", providerType.getName());
+        } else if (collectConstructorDependencies(providerType, null, description)) {
+            collectMemberDependencies(providerType, null, description);
+        }
+    }
+
+    private void describeDecorator(DecoratorProvider<?> decorator, BindingDescription description) {
+        Class<?> implementation;
+        if (decorator instanceof FieldInjectingDecoratorProvider) {
+            implementation = ((FieldInjectingDecoratorProvider<?>) decorator).getImplementation();
+            if (collectConstructorDependencies(implementation, implementation, description)) {
+                collectMemberDependencies(implementation, implementation, description);
+            }
+        } else if (decorator instanceof ConstructorInjectingDecoratorProvider) {
+            implementation = ((ConstructorInjectingDecoratorProvider<?>) decorator).getImplementation();
+            collectConstructorDependencies(implementation, implementation, description);
+        } else {
+            return;
+        }
+
+        description.decorators.add(implementation);
+    }
+
+    /**
+     * @param decorator decorator class if the constructor is of a decorator, its delegate parameter is skipped
+     * @return whether the type can be instantiated
+     */
+    private boolean collectConstructorDependencies(Class<?> type, Class<?> decorator, BindingDescription description) {
+
+        if (Modifier.isAbstract(type.getModifiers()) || type.isPrimitive() || type.isArray()) {
+            description.addProblem("Type '%s' of key %s can't be instantiated, it is abstract or has no constructor",
+                    type.getName(), description.getKey());
+            return false;
+        }
+
+        Constructor<?> constructor = ConstructorInjectingProvider.findInjectableConstructor(type, injector.getPredicates());
+        if (constructor == null) {
+            description.addProblem("No applicable constructor is found for constructor injection in class '%s'",
+                    type.getName());
+            return false;
+        }
+
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Type[] genericParameterTypes = constructor.getGenericParameterTypes();
+        Annotation[][] parameterAnnotations = constructor.getParameterAnnotations();
+        for (int i = 0; i < parameterTypes.length; i++) {
+
+            // same as constructor injection, last qualifier wins
+            Annotation qualifier = null;
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (injector.getPredicates().isQualifierAnnotation(annotation)) {
+                    qualifier = annotation;
+                }
+            }
+
+            if (decorator != null && isDecoratorDelegate(parameterTypes[i], genericParameterTypes[i], decorator)) {
+                continue;
+            }
+
+            collectParameterDependency(parameterTypes[i], genericParameterTypes[i], qualifier, i,
+                    "constructor of class '%s'", type.getName(), null, description);
+        }
+
+        return true;
+    }
+
+    /**
+     * @param decorator decorator class if the members are of a decorator, its delegate field is skipped
+     */
+    private void collectMemberDependencies(Class<?> type, Class<?> decorator, BindingDescription description) {
+
+        try {
+            for (InjectableField field : injector.getFieldInjectionPlan(type).getFields()) {
+                if (decorator != null
+                        && isDecoratorDelegate(field.getType().getRawType(), field.getField().getGenericType(), decorator)) {
+                    continue;
+                }
+
+                String className = field.getField().getDeclaringClass().getName();
+                if (field.getKey() == null) {
+                    description.addProblem("Provider field %s.%s must be parameterized to be usable for injection",
+                            className, field.getField().getName());
+                } else {
+                    description.addDependency(field.getKey(), field.isProvider(), !field.isProvider(),
+                            "field %s.%s", className, field.getField().getName());
+                }
+            }
+        } catch (DIRuntimeException e) {
+            description.addProblem(e.getMessage());
+        }
+
+        // decorators are never injected into methods
+        if (decorator != null || !injector.isMethodInjectionEnabled()) {
+            return;
+        }
+
+        for (InjectableMethod injectableMethod : injector.getMethodInjectionPlan(type).getMethods()) {
+            Method method = injectableMethod.getMethod();
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            Type[] genericParameterTypes = method.getGenericParameterTypes();
+            Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                try {
+                    Annotation qualifier = MemberInjectingProvider.getQualifier(injector, parameterAnnotations[i], method);
+                    collectParameterDependency(parameterTypes[i], genericParameterTypes[i], qualifier, i,
+                            "method '%s()' of class '%s'", method.getName(), method.getDeclaringClass().getName(),
+                            description);
+                } catch (DIRuntimeException e) {
+                    description.addProblem(e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void collectParameterDependency(
+            Class<?> type,
+            Type genericType,
+            Annotation qualifier,
+            int index,
+            String originFormat,
+            Object originArg1,
+            Object originArg2,
+            BindingDescription description) {
+
+        try {
+            if (injector.getPredicates().isProviderType(type)) {
+                Type providedType = GenericTypesUtils.getGenericParameterType(genericType);
+                if (providedType == null) {
+                    description.addProblem("Parameter %d of %s of 'Provider' type must be parameterized to be usable for injection",
+                            index, String.format(originFormat, originArg1, originArg2));
+                    return;
+                }
+                Key<?> key = Key.get(TypeLiteral.of(providedType), qualifier);
+                description.addDependency(key, true, false, originFormat, originArg1, originArg2);
+            } else {
+                Key<?> key = Key.get(TypeLiteral.of(genericType), qualifier);
+                description.addDependency(key, false, true, originFormat, originArg1, originArg2);
+            }
+        } catch (DIRuntimeException e) {
+            description.addProblem("Unable to resolve type of parameter %d of %s: %s",
+                    index, String.format(originFormat, originArg1, originArg2), e.getMessage());
+        }
+    }
+
+    /**
+     * Same check as in the decorator providers, tells whether a constructor parameter or a field is an injection
+     * point of the decorated object.
+     */
+    private boolean isDecoratorDelegate(Class<?> type, Type genericType, Class<?> decorator) {
+        if (injector.getPredicates().isProviderType(type)) {
+            Class<?> objectClass = GenericTypesUtils.parameterClass(genericType);
+            return objectClass != null && objectClass.isAssignableFrom(decorator);
+        }
+        return type.isAssignableFrom(decorator);
+    }
+
+    /**
+     * A dependency of a binding on some other key.
+     */
+    static final class Dependency {
+
+        private final Key<?> key;
+        private final boolean provider;
+        private final boolean proxyable;
+
+        // origin is only needed for error reporting, so it is formatted on demand
+        private final String originFormat;
+        private final Object originArg1;
+        private final Object originArg2;
+
+        Dependency(Key<?> key, boolean provider, boolean proxyable, String originFormat, Object originArg1, Object originArg2) {
+            this.key = key;
+            this.provider = provider;
+            this.proxyable = proxyable;
+            this.originFormat = originFormat;
+            this.originArg1 = originArg1;
+            this.originArg2 = originArg2;
+        }
+
+        Key<?> getKey() {
+            return key;
+        }
+
+        /**
+         * @return whether the dependency is injected as a Provider, and so is not resolved when the object is created
+         */
+        boolean isProvider() {
+            return provider;
+        }
+
+        /**
+         * @return whether the dependency is resolved with the injection stack check, so a circular dependency
+         * can be broken here with a proxy, if the dependency type is an interface
+         */
+        boolean isProxyable() {
+            return proxyable;
+        }
+
+        /**
+         * @return a readable name of the injection point, e.g. a constructor or a field
+         */
+        String getOrigin() {
+            return String.format(originFormat, originArg1, originArg2);
+        }
+    }
+
+    /**
+     * Binding description, i.e. provider kind, implementation class, dependencies and problems found.
+     */
+    static final class BindingDescription {
+
+        private final Key<?> key;
+        private final List<Dependency> dependencies;
+        private final List<Class<?>> decorators;
+        private final List<String> problems;
+        private ProviderKind kind;
+        private Class<?> implementation;
+
+        BindingDescription(Key<?> key) {
+            this.key = key;
+            this.dependencies = new ArrayList<>(4);
+            this.decorators = new ArrayList<>(1);
+            this.problems = new ArrayList<>(1);
+        }
+
+        Key<?> getKey() {
+            return key;
+        }
+
+        ProviderKind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return a class instantiated by the binding, a provider method return type or a custom provider type.
+         * Null if unknown.
+         */
+        Class<?> getImplementation() {
+            return implementation;
+        }
+
+        List<Dependency> getDependencies() {
+            return dependencies;
+        }
+
+        List<Class<?>> getDecorators() {
+            return decorators;
+        }
+
+        List<String> getProblems() {
+            return problems;
+        }
+
+        void addDependency(Key<?> key, boolean provider, boolean proxyable, String originFormat, Object originArg) {
+            addDependency(key, provider, proxyable, originFormat, originArg, null);
+        }
+
+        void addDependency(Key<?> key, boolean provider, boolean proxyable, String originFormat, Object originArg1, Object originArg2) {
+            dependencies.add(new Dependency(key, provider, proxyable, originFormat, originArg1, originArg2));
+        }
+
+        void addProblem(String format, Object... args) {
+            problems.add(args.length > 0 ? String.format(format, args) : format);
+        }
+    }
+}
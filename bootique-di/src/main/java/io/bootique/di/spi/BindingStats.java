@@ -0,0 +1,147 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import javax.inject.Provider;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolution and instance creation statistics of a single binding, collected when the injector instrumentation is
+ * enabled. Resolutions are lookups of the binding via the injector, counted by the injector itself, so lookups of the
+ * cached scoped instances are included. Creation time is measured below the scope, so only the actual instance
+ * creation is counted, and is split into the total time and the self time that excludes creation of the dependencies.
+ * <p>
+ * All counters are {@link LongAdder}s, updates from different threads go to different cells and don't contend on the
+ * resolution path. Each event is counted once: if the binding recorder of the {@link InjectorMetrics} is the one of
+ * {@link CountingInjectorMetrics}, its counters are used as the statistics of the binding, as they are created for
+ * this binding only. Other recorders are called in addition to the own counters of this object.
+ * <p>
+ * Nothing is measured while the injector instrumentation is inactive, i.e. after the startup if it was enabled only
+ * for startup profiling.
+ */
+class BindingStats {
+
+    private final DefaultInjector injector;
+    private final CountingInjectorMetrics.Counters counters;
+
+    // null unless a custom metrics recorder is used
+    private final InjectorMetrics.BindingRecorder recorder;
+
+    /**
+     * @param recorder metrics recorder of the binding or null if metrics are not collected
+     */
+    BindingStats(DefaultInjector injector, InjectorMetrics.BindingRecorder recorder) {
+        this.injector = injector;
+
+        if (recorder instanceof CountingInjectorMetrics.Counters) {
+            this.counters = (CountingInjectorMetrics.Counters) recorder;
+            this.recorder = null;
+        } else {
+            this.counters = new CountingInjectorMetrics.Counters();
+            this.recorder = recorder;
+        }
+    }
+
+    /**
+     * Wraps an unscoped provider to measure instance creation.
+     */
+    <T> Provider<T> instrument(Provider<T> provider) {
+        return new InstrumentedProvider<>(provider);
+    }
+
+    void resolved() {
+        if (!injector.isInstrumentationActive()) {
+            return;
+        }
+
+        counters.resolved();
+        if (recorder != null) {
+            recorder.resolved();
+        }
+    }
+
+    long getResolutions() {
+        return counters.getResolutions();
+    }
+
+    long getInstances() {
+        return counters.getInstances();
+    }
+
+    long getFailures() {
+        return counters.getFailures();
+    }
+
+    long getCreationNanos() {
+        return counters.getCreationNanos();
+    }
+
+    long getSelfCreationNanos() {
+        return counters.getSelfCreationNanos();
+    }
+
+    private class InstrumentedProvider<T> implements Provider<T> {
+
+        private final Provider<T> delegate;
+
+        InstrumentedProvider(Provider<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T get() {
+            if (!injector.isInstrumentationActive()) {
+                return delegate.get();
+            }
+
+            ResolutionContext context = injector.getResolutionContext();
+            long outerDependenciesNanos = context.getDependenciesNanos();
+            context.setDependenciesNanos(0);
+
+            long nanos;
+            long dependenciesNanos;
+            long start = System.nanoTime();
+            T instance;
+            boolean created = false;
+            try {
+                instance = delegate.get();
+                created = true;
+            } finally {
+                nanos = System.nanoTime() - start;
+                dependenciesNanos = context.getDependenciesNanos();
+                // this object is a dependency of the outer one, even if it failed
+                context.setDependenciesNanos(outerDependenciesNanos + nanos);
+                if (!created) {
+                    counters.failed(nanos);
+                    if (recorder != null) {
+                        recorder.failed(nanos);
+                    }
+                }
+            }
+
+            long selfNanos = nanos - dependenciesNanos;
+            counters.created(nanos, selfNanos);
+            if (recorder != null) {
+                recorder.created(nanos, selfNanos);
+            }
+            return instance;
+        }
+    }
+}
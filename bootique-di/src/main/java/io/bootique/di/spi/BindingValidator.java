@@ -0,0 +1,231 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.Key;
+import io.bootique.di.spi.BindingIntrospector.BindingDescription;
+import io.bootique.di.spi.BindingIntrospector.Dependency;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks the whole binding graph of the injector without creating any objects, so that missing bindings, bad
+ * qualifiers, unresolvable generic types and circular dependencies are reported on startup and not when the broken
+ * key is first requested. All the problems found are reported at once, with a single exception.
+ * <p>
+ * Validation starts from every declared binding and follows constructor, field, method and provider method
+ * dependencies, including the unbound concrete classes that would become dynamic bindings. Keys requested
+ * directly from the injector by the application code are unknown here and are not checked.
+ */
+class BindingValidator {
+
+    private final DefaultInjector injector;
+    private final BindingIntrospector introspector;
+
+    BindingValidator(DefaultInjector injector) {
+        this.injector = injector;
+        this.introspector = new BindingIntrospector(injector);
+    }
+
+    void validate() {
+        Set<String> problems = new HashSet<>();
+        Map<Key<?>, BindingDescription> graph = describeBindings(problems);
+        findUnresolvableCycles(graph, problems);
+
+        if (!problems.isEmpty()) {
+            // binding order is random, so sort the problems to make the report stable
+            List<String> sortedProblems = new ArrayList<>(problems);
+            Collections.sort(sortedProblems);
+
+            StringBuilder message = new StringBuilder();
+            for (String problem : sortedProblems) {
+                message.append(System.lineSeparator()).append("  - ").append(problem);
+            }
+            injector.throwException("Injector validation failed with %d problem(s):%s", problems.size(), message);
+        }
+    }
+
+    private Map<Key<?>, BindingDescription> describeBindings(Set<String> problems) {
+        Map<Key<?>, Binding<?>> bindings = injector.getAllBindings();
+        Map<Key<?>, BindingDescription> graph = new HashMap<>((int) (bindings.size() / 0.75f) + 1);
+
+        Deque<Key<?>> queue = new ArrayDeque<>(bindings.keySet());
+
+        while (!queue.isEmpty()) {
+            Key<?> key = queue.poll();
+            if (graph.containsKey(key)) {
+                continue;
+            }
+
+            BindingDescription description = introspector.describe(key);
+            graph.put(key, description);
+            problems.addAll(description.getProblems());
+
+            for (Dependency dependency : description.getDependencies()) {
+                Key<?> dependencyKey = dependency.getKey();
+                if (graph.containsKey(dependencyKey)) {
+                    continue;
+                }
+
+                if (!bindings.containsKey(dependencyKey)) {
+                    if (!injector.isDynamicBindingAllowed()) {
+                        problems.add(String.format("DI container has no binding for key %s required by %s "
+                                + "and dynamic bindings are disabled.", dependencyKey, dependency.getOrigin()));
+                        continue;
+                    }
+
+                    Class<?> type = dependencyKey.getType().getRawType();
+                    if (Modifier.isAbstract(type.getModifiers()) || type.isArray()) {
+                        problems.add(String.format("DI container has no binding for key %s required by %s "
+                                + "and its type can't be instantiated.", dependencyKey, dependency.getOrigin()));
+                        continue;
+                    }
+                }
+
+                queue.add(dependencyKey);
+            }
+        }
+
+        return graph;
+    }
+
+    /**
+     * Finds circular dependencies (strongly connected components of the graph of the non-Provider dependencies)
+     * and reports those that can't be broken with a proxy. This is an optimistic check, a cycle is considered
+     * resolvable if any of its keys is an interface, while at runtime that also depends on which key of the cycle
+     * is requested first.
+     */
+    private void findUnresolvableCycles(Map<Key<?>, BindingDescription> graph, Set<String> problems) {
+
+        // Tarjan's algorithm, iterative as dependency chains could be long. Node state is {index, lowlink}.
+        Map<Key<?>, int[]> state = new HashMap<>((int) (graph.size() / 0.75f) + 1);
+        Deque<Key<?>> componentStack = new ArrayDeque<>();
+        Set<Key<?>> onStack = new HashSet<>();
+        Deque<Node> path = new ArrayDeque<>();
+        int counter = 0;
+
+        for (BindingDescription root : graph.values()) {
+            if (state.containsKey(root.getKey())) {
+                continue;
+            }
+
+            state.put(root.getKey(), new int[]{counter, counter++});
+            componentStack.push(root.getKey());
+            onStack.add(root.getKey());
+            path.push(new Node(root));
+
+            while (!path.isEmpty()) {
+                Node node = path.peek();
+                int[] nodeState = state.get(node.key);
+
+                if (node.dependencies.hasNext()) {
+                    Dependency dependency = node.dependencies.next();
+                    Key<?> next = dependency.getKey();
+                    if (dependency.isProvider() || !graph.containsKey(next)) {
+                        continue;
+                    }
+
+                    int[] nextState = state.get(next);
+                    if (nextState == null) {
+                        state.put(next, new int[]{counter, counter++});
+                        componentStack.push(next);
+                        onStack.add(next);
+                        path.push(new Node(graph.get(next)));
+                    } else if (onStack.contains(next)) {
+                        nodeState[1] = Math.min(nodeState[1], nextState[0]);
+                    }
+                    continue;
+                }
+
+                path.pop();
+                if (!path.isEmpty()) {
+                    int[] parentState = state.get(path.peek().key);
+                    parentState[1] = Math.min(parentState[1], nodeState[1]);
+                }
+
+                if (nodeState[1] == nodeState[0]) {
+                    List<Key<?>> component = new ArrayList<>();
+                    Key<?> member;
+                    do {
+                        member = componentStack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(node.key));
+
+                    checkCycle(component, graph, problems);
+                }
+            }
+        }
+    }
+
+    private void checkCycle(List<Key<?>> component, Map<Key<?>, BindingDescription> graph, Set<String> problems) {
+
+        Set<Key<?>> members = new HashSet<>(component);
+        boolean cycle = component.size() > 1;
+        boolean proxyable = false;
+
+        for (Key<?> key : component) {
+            for (Dependency dependency : graph.get(key).getDependencies()) {
+                if (dependency.isProvider() || !members.contains(dependency.getKey())) {
+                    continue;
+                }
+
+                cycle = true;
+                if (dependency.isProxyable() && dependency.getKey().getType().getRawType().isInterface()) {
+                    proxyable = true;
+                }
+            }
+        }
+
+        if (!cycle) {
+            return;
+        }
+
+        if (!injector.isProxyCreationAllowed()) {
+            problems.add(String.format("Circular dependency detected between keys %s and proxy creation is disabled. "
+                    + "To resolve it, you should inject a Provider instead of an object.", component));
+        } else if (!proxyable) {
+            problems.add(String.format("Circular dependency detected between keys %s that can't be broken with a proxy, "
+                    + "as none of them is an interface. To resolve it, you should inject a Provider instead of an object.",
+                    component));
+        }
+    }
+
+    private static class Node {
+
+        final Key<?> key;
+        final Iterator<Dependency> dependencies;
+
+        Node(BindingDescription description) {
+            this.key = description.getKey();
+            this.dependencies = description.getDependencies().iterator();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.BeforeScopeEnd;
+import io.bootique.di.DIRuntimeException;
+
+import javax.inject.Provider;
+import java.lang.ref.SoftReference;
+
+/**
+ * A scope that caches instances of its bindings under a global cap on the number of cached instances. When the cap
+ * is reached, the least recently used instances are evicted (approximated with the "CLOCK" algorithm, so that cache
+ * hits don't need any locking) and have their {@link BeforeScopeEnd} methods called. Optionally the instances can be
+ * held via soft references, so that they are also dropped under memory pressure. Instances cleared by the garbage
+ * collector can't receive any callbacks.
+ * <p>
+ * This scope is intended for large, but cheaply rebuildable objects, like lookup tables. An evicted instance may still
+ * be in use by the callers that got it before the eviction, so it should remain usable after its scope end.
+ * <p>
+ * Instances are registered for the scope events the same way as in the {@link DefaultScope}, so the cached ones are
+ * ended on {@link #shutdown()}.
+ * <p>
+ * Eviction is triggered by the creation of an instance of another binding, so a failure of a {@link BeforeScopeEnd}
+ * method of an evicted instance is not thrown to that unrelated caller. Such failures are collected instead and
+ * rethrown on {@link #shutdown()}.
+ */
+public class CachingScope extends DefaultScope {
+
+    // keep the memory used by the collected eviction failures bounded, no matter how many evictions fail
+    private static final int MAX_SUPPRESSED_FAILURES = 16;
+
+    private final boolean softValues;
+
+    // CLOCK ring of the cached entries, guarded by its own lock
+    private final CacheEntry<?>[] ring;
+    private int hand;
+
+    // failures of the evicted instances handlers, rethrown on shutdown. Guarded by the ring lock
+    private DIRuntimeException evictionFailure;
+
+    // evicted instances are ended with the same invocation strategy as the scope event handlers
+    private volatile BeforeScopeEndHandlers beforeScopeEndHandlers = BeforeScopeEndHandlers.DEFAULT;
+
+    /**
+     * Creates a scope that keeps at most "maxEntries" instances strongly reachable.
+     */
+    public CachingScope(int maxEntries) {
+        this(maxEntries, false);
+    }
+
+    /**
+     * Creates a scope that keeps at most "maxEntries" instances, optionally via soft references.
+     */
+    public CachingScope(int maxEntries, boolean softValues) {
+        if (maxEntries <= 0) {
+            throw new DIRuntimeException("Max entries must be positive: %d", maxEntries);
+        }
+
+        this.softValues = softValues;
+        this.ring = new CacheEntry<?>[maxEntries];
+    }
+
+    @Override
+    void setInvokerFactory(InvokerFactory invokerFactory) {
+        super.setInvokerFactory(invokerFactory);
+        this.beforeScopeEndHandlers = new BeforeScopeEndHandlers(invokerFactory);
+    }
+
+    @Override
+    public <T> Provider<T> scope(Provider<T> unscoped) {
+        return new CachingScopeProvider<>(this, unscoped);
+    }
+
+    @Override
+    public void shutdown() {
+
+        DIRuntimeException failure = null;
+        try {
+            super.shutdown();
+        } catch (DIRuntimeException e) {
+            failure = e;
+        }
+
+        synchronized (ring) {
+            for (int i = 0; i < ring.length; i++) {
+                ring[i] = null;
+            }
+
+            if (evictionFailure != null) {
+                if (failure == null) {
+                    failure = evictionFailure;
+                } else {
+                    failure.addSuppressed(evictionFailure);
+                }
+
+                evictionFailure = null;
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    <T> CacheEntry<T> newEntry(CachingScopeProvider<T> provider, T instance) {
+        return new CacheEntry<>(provider, instance, softValues);
+    }
+
+    /**
+     * Puts a new entry to the CLOCK ring, evicting another one if needed.
+     */
+    void admit(CacheEntry<?> entry) {
+
+        CacheEntry<?> victim;
+
+        synchronized (ring) {
+            while (true) {
+                CacheEntry<?> candidate = ring[hand];
+
+                // give recently used entries a second chance, take empty slots and the slots of the dropped entries
+                if (candidate != null && candidate.referenced && candidate.isCached()) {
+                    candidate.referenced = false;
+                    hand = (hand + 1) % ring.length;
+                    continue;
+                }
+
+                victim = candidate;
+                ring[hand] = entry;
+                hand = (hand + 1) % ring.length;
+                break;
+            }
+        }
+
+        if (victim != null) {
+            evict(victim);
+        }
+    }
+
+    private <T> void evict(CacheEntry<T> victim) {
+        T instance = victim.get();
+        if (victim.provider.evict(victim) && instance != null) {
+            removeScopeEventListener(instance);
+            DIRuntimeException failure = beforeScopeEndHandlers.invoke(instance, null);
+            if (failure != null) {
+                collectEvictionFailure(failure);
+            }
+        }
+    }
+
+    private void collectEvictionFailure(DIRuntimeException failure) {
+        synchronized (ring) {
+            if (evictionFailure == null) {
+                evictionFailure = failure;
+            } else if (evictionFailure.getSuppressed().length < MAX_SUPPRESSED_FAILURES) {
+                evictionFailure.addSuppressed(failure);
+            }
+        }
+    }
+
+    static final class CacheEntry<T> {
+
+        final CachingScopeProvider<T> provider;
+        private final T instance;
+        private final SoftReference<T> softInstance;
+
+        // CLOCK reference bit, racy updates are fine
+        volatile boolean referenced;
+
+        CacheEntry(CachingScopeProvider<T> provider, T instance, boolean soft) {
+            this.provider = provider;
+            this.instance = soft ? null : instance;
+            this.softInstance = soft ? new SoftReference<>(instance) : null;
+        }
+
+        T get() {
+            return softInstance != null ? softInstance.get() : instance;
+        }
+
+        boolean isCached() {
+            return provider.isCurrent(this) && get() != null;
+        }
+    }
+}
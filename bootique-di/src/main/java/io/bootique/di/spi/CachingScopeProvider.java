@@ -0,0 +1,117 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.DIRuntimeException;
+
+import javax.inject.Provider;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A provider that caches an instance of the underlying provider in the {@link CachingScope}.
+ * <p>
+ * Instances are created under the provider lock, so each of them is created once. The entry is cleared without
+ * locking though, as the eviction is triggered by the creation of an instance of another provider, and waiting for
+ * that provider lock while holding this one could deadlock.
+ */
+class CachingScopeProvider<T> implements Provider<T> {
+
+    private final Provider<T> delegate;
+    private final CachingScope scope;
+
+    private final AtomicReference<CachingScope.CacheEntry<T>> entry;
+
+    CachingScopeProvider(CachingScope scope, Provider<T> delegate) {
+        this.scope = scope;
+        this.delegate = delegate;
+        this.entry = new AtomicReference<>();
+
+        scope.addScopeEventListener(this);
+    }
+
+    @Override
+    public T get() {
+        CachingScope.CacheEntry<T> localEntry = entry.get();
+        if (localEntry != null) {
+            T instance = localEntry.get();
+            if (instance != null) {
+                if (!localEntry.referenced) {
+                    localEntry.referenced = true;
+                }
+                return instance;
+            }
+        }
+
+        return create();
+    }
+
+    private T create() {
+
+        T instance;
+        CachingScope.CacheEntry<T> newEntry;
+
+        synchronized (this) {
+            CachingScope.CacheEntry<T> localEntry = entry.get();
+            if (localEntry != null) {
+                instance = localEntry.get();
+                if (instance != null) {
+                    return instance;
+                }
+            }
+
+            instance = delegate.get();
+            if (instance == null) {
+                throw new DIRuntimeException("Underlying provider (%s) returned NULL instance"
+                        , DIUtil.getProviderName(delegate));
+            }
+
+            scope.addScopeEventListener(instance);
+            newEntry = scope.newEntry(this, instance);
+            entry.set(newEntry);
+        }
+
+        // admit outside of this provider lock, as it may evict an instance of another provider
+        scope.admit(newEntry);
+        return instance;
+    }
+
+    boolean isCurrent(CachingScope.CacheEntry<T> entry) {
+        return this.entry.get() == entry;
+    }
+
+    /**
+     * Drops the entry if it is still current. Doesn't lock this provider, so it is safe to call while another
+     * provider is creating its instance.
+     *
+     * @return whether the entry was dropped by this call
+     */
+    boolean evict(CachingScope.CacheEntry<T> entry) {
+        return this.entry.compareAndSet(entry, null);
+    }
+
+    @AfterScopeEnd
+    public void afterScopeEnd() {
+        CachingScope.CacheEntry<T> localEntry = entry.getAndSet(null);
+        Object localInstance = localEntry != null ? localEntry.get() : null;
+        if (localInstance != null) {
+            scope.removeScopeEventListener(localInstance);
+        }
+    }
+}
@@ -19,8 +19,9 @@
 
 package io.bootique.di.spi;
 
+import io.bootique.di.Key;
+
 import javax.inject.Provider;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 
 class ConstructorInjectingDecoratorProvider<T> implements DecoratorProvider<T> {
@@ -38,10 +39,10 @@ class ConstructorInjectingDecoratorProvider<T> implements DecoratorProvider<T> {
 
         return new ConstructorInjectingProvider<T>(implementation, injector) {
             @Override
-            protected Object value(Class<?> parameter, Type genericType, Annotation bindingAnnotation) {
+            protected Object value(Class<?> parameter, Type genericType, boolean provider, Key<?> key) {
 
                 // delegate (possibly) injected as Provider
-                if (injector.getPredicates().isProviderType(parameter)) {
+                if (provider) {
 
                     Class<?> objectClass = GenericTypesUtils.parameterClass(genericType);
 
@@ -59,8 +60,12 @@ class ConstructorInjectingDecoratorProvider<T> implements DecoratorProvider<T> {
                     return undecorated.get();
                 }
 
-                return super.value(parameter, genericType, bindingAnnotation);
+                return super.value(parameter, genericType, provider, key);
             }
         };
     }
+
+    Class<? extends T> getImplementation() {
+        return implementation;
+    }
 }
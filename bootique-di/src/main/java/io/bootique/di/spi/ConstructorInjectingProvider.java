@@ -29,18 +29,45 @@ import java.lang.reflect.Type;
 class ConstructorInjectingProvider<T> implements NamedProvider<T> {
 
     private final Constructor<? extends T> constructor;
+    private final InvokerFactory.ConstructorInvoker<? extends T> constructorInvoker;
     private final DefaultInjector injector;
     private final Annotation[] bindingAnnotations;
+    private final Class<?>[] parameterTypes;
+    private final Type[] genericParameterTypes;
+    private final boolean[] providerParameters;
+
+    // resolved lazily on the first call, as type resolution may fail and should be reported at injection time
+    private volatile Key<?>[] parameterKeys;
 
     ConstructorInjectingProvider(Class<? extends T> implementation, DefaultInjector injector) {
         this.injector = injector;
         this.constructor = findConstructor(implementation);
+        this.constructorInvoker = injector.getInvokerFactory().constructorInvoker(constructor);
         this.bindingAnnotations = collectParametersQualifiers(constructor);
+        this.parameterTypes = constructor.getParameterTypes();
+        this.genericParameterTypes = constructor.getGenericParameterTypes();
+        this.providerParameters = collectProviderParameters(parameterTypes);
     }
 
     @SuppressWarnings("unchecked")
     private Constructor<? extends T> findConstructor(Class<? extends T> implementation) {
 
+        Constructor<?> constructor = findInjectableConstructor(implementation, injector.getPredicates());
+        if (constructor == null) {
+            return injector.throwException(
+                    "No applicable constructor is found for constructor injection in class '%s'",
+                    implementation.getName());
+        }
+
+        constructor.setAccessible(true);
+        return (Constructor<? extends T>) constructor;
+    }
+
+    /**
+     * @return a constructor to use for injection into a given class, or null if there is no such constructor
+     */
+    static Constructor<?> findInjectableConstructor(Class<?> implementation, InjectorPredicates predicates) {
+
         Constructor<?>[] constructors = implementation.getDeclaredConstructors();
         Constructor<?> lastMatch = null;
         int lastSize = -1;
@@ -59,20 +86,13 @@ class ConstructorInjectingProvider<T> implements NamedProvider<T> {
                 continue;
             }
 
-            if (injector.getPredicates().hasInjectAnnotation(constructor)) {
+            if (predicates.hasInjectAnnotation(constructor)) {
                 lastSize = size;
                 lastMatch = constructor;
             }
         }
 
-        if (lastMatch == null) {
-            return injector.throwException(
-                    "No applicable constructor is found for constructor injection in class '%s'",
-                    implementation.getName());
-        }
-
-        lastMatch.setAccessible(true);
-        return (Constructor<? extends T>) lastMatch;
+        return lastMatch;
     }
 
     private Annotation[] collectParametersQualifiers(Constructor<? extends T> constructor) {
@@ -89,42 +109,81 @@ class ConstructorInjectingProvider<T> implements NamedProvider<T> {
         return result;
     }
 
+    private boolean[] collectProviderParameters(Class<?>[] parameterTypes) {
+        boolean[] result = new boolean[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            result[i] = injector.getPredicates().isProviderType(parameterTypes[i]);
+        }
+        return result;
+    }
+
+    private Key<?>[] getParameterKeys() {
+        Key<?>[] keys = parameterKeys;
+        if (keys == null) {
+            // concurrent resolution is harmless, all threads will get equal keys
+            keys = parameterKeys = resolveParameterKeys();
+        }
+        return keys;
+    }
+
+    private Key<?>[] resolveParameterKeys() {
+        Key<?>[] keys = new Key<?>[parameterTypes.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (providerParameters[i]) {
+                Type parameterType = GenericTypesUtils.getGenericParameterType(genericParameterTypes[i]);
+                // null key is an invalid non-parameterized provider, it will be reported on injection
+                keys[i] = parameterType != null ? Key.get(TypeLiteral.of(parameterType), bindingAnnotations[i]) : null;
+            } else {
+                keys[i] = Key.get(TypeLiteral.of(genericParameterTypes[i]), bindingAnnotations[i]);
+            }
+        }
+        return keys;
+    }
+
     @Override
     public T get() {
 
-        Class<?>[] constructorParameters = constructor.getParameterTypes();
-        Type[] genericTypes = constructor.getGenericParameterTypes();
-        Object[] args = new Object[constructorParameters.length];
+        Key<?>[] keys = getParameterKeys();
+        Object[] args = new Object[keys.length];
 
-        for (int i = 0; i < constructorParameters.length; i++) {
-            final int idx = i;
-            injector.trace(() -> "Get argument " + idx + " for " + getName());
-            args[i] = value(constructorParameters[i], genericTypes[i], bindingAnnotations[i]);
+        for (int i = 0; i < keys.length; i++) {
+            injector.trace("Get argument %d for %s", i, this);
+            args[i] = value(parameterTypes[i], genericParameterTypes[i], providerParameters[i], keys[i]);
         }
 
         try {
-            injector.trace(() -> "Invoking " + getName());
-            return constructor.newInstance(args);
+            injector.trace("Invoking %s", this);
+            return constructorInvoker.newInstance(args);
         } catch (Exception e) {
             return injector.throwException("Error invoking %s", e, getName());
         }
     }
 
-    protected Object value(Class<?> parameter, Type genericType, Annotation bindingAnnotation) {
-
-        if (injector.getPredicates().isProviderType(parameter)) {
-            Type parameterType = GenericTypesUtils.getGenericParameterType(genericType);
-            if (parameterType == null) {
+    /**
+     * @param parameter raw type of the constructor parameter
+     * @param genericType generic type of the constructor parameter
+     * @param provider whether the parameter is a Provider
+     * @param key key of the injected object, or of the provided object for Provider parameters. May be null for
+     *            non-parameterized Provider parameters.
+     * @return a value to pass to the constructor
+     */
+    protected Object value(Class<?> parameter, Type genericType, boolean provider, Key<?> key) {
+
+        if (provider) {
+            if (key == null) {
                 return injector.throwException("Constructor provider parameter %s must be "
                         + "parameterized to be usable for injection", parameter.getName());
             }
-            return injector.getProvider(Key.get(TypeLiteral.of(parameterType), bindingAnnotation));
+            return injector.getProvider(key);
         } else {
-            Key<?> key = Key.get(TypeLiteral.of(genericType), bindingAnnotation);
             return injector.getInstanceWithCycleProtection(key);
         }
     }
 
+    Class<?> getImplementation() {
+        return constructor.getDeclaringClass();
+    }
+
     @Override
     public String getName() {
         return "constructor of class '" + constructor.getDeclaringClass().getName() + "'";
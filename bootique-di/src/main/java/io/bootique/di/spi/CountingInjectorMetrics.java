@@ -0,0 +1,218 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.Key;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link InjectorMetrics} that count resolutions, created instances, creation failures and cumulative creation time
+ * of each binding, and can be queried for snapshots at any time.
+ * <p>
+ * Counters are kept in {@link LongAdder}s, so concurrent resolution of the same binding on many cores doesn't contend
+ * on them. Counters are read one by one, so a snapshot taken under load is not an atomic cut of all the values.
+ * Each binding gets its own counters, that the injector also uses as the binding statistics, so every event is counted
+ * once. Snapshots are taken per binding key, summing up the values of the bindings with the same key, e.g. when a
+ * single instance collects metrics of several injectors. Counters survive injector shutdown, so an instance shared by
+ * many short-lived injectors keeps the counters of all of their bindings.
+ *
+ * @see io.bootique.di.DIBootstrap.InjectorBuilder#withMetrics(InjectorMetrics)
+ */
+public class CountingInjectorMetrics implements InjectorMetrics {
+
+    private final ConcurrentMap<Key<?>, Collection<Counters>> counters;
+
+    public CountingInjectorMetrics() {
+        this.counters = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public BindingRecorder bindingCreated(Key<?> key) {
+        Counters bindingCounters = new Counters();
+        counters.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>()).add(bindingCounters);
+        return bindingCounters;
+    }
+
+    /**
+     * Returns current values of the metrics of all the bindings created so far, including dynamic bindings.
+     *
+     * @return an immutable map of binding metrics by binding key
+     */
+    public Map<Key<?>, BindingMetrics> snapshot() {
+        Map<Key<?>, BindingMetrics> snapshot = new HashMap<>((int) (counters.size() / 0.75f) + 1);
+        counters.forEach((key, c) -> snapshot.put(key, new BindingMetrics(key, c)));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Returns current values of the metrics of a single binding.
+     *
+     * @param key binding key
+     * @return binding metrics or null if there's no such binding
+     */
+    public BindingMetrics snapshot(Key<?> key) {
+        Collection<Counters> c = counters.get(key);
+        return c != null ? new BindingMetrics(key, c) : null;
+    }
+
+    /**
+     * Counters of a single binding. The injector uses them as its own binding statistics, so that each event is
+     * counted once.
+     */
+    static class Counters implements BindingRecorder {
+
+        private final LongAdder resolutions = new LongAdder();
+        private final LongAdder instances = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder creationNanos = new LongAdder();
+        private final LongAdder selfCreationNanos = new LongAdder();
+
+        @Override
+        public void resolved() {
+            resolutions.increment();
+        }
+
+        @Override
+        public void created(long nanos, long selfNanos) {
+            instances.increment();
+            creationNanos.add(nanos);
+            selfCreationNanos.add(selfNanos);
+        }
+
+        @Override
+        public void failed(long nanos) {
+            failures.increment();
+        }
+
+        long getResolutions() {
+            return resolutions.sum();
+        }
+
+        long getInstances() {
+            return instances.sum();
+        }
+
+        long getFailures() {
+            return failures.sum();
+        }
+
+        long getCreationNanos() {
+            return creationNanos.sum();
+        }
+
+        long getSelfCreationNanos() {
+            return selfCreationNanos.sum();
+        }
+    }
+
+    /**
+     * Metric values of a single binding at the time of a snapshot.
+     */
+    public static final class BindingMetrics {
+
+        private final Key<?> key;
+        private final long resolutions;
+        private final long instances;
+        private final long failures;
+        private final long creationNanos;
+        private final long selfCreationNanos;
+
+        private BindingMetrics(Key<?> key, Collection<Counters> counters) {
+
+            long resolutions = 0;
+            long instances = 0;
+            long failures = 0;
+            long creationNanos = 0;
+            long selfCreationNanos = 0;
+
+            for (Counters c : counters) {
+                resolutions += c.getResolutions();
+                instances += c.getInstances();
+                failures += c.getFailures();
+                creationNanos += c.getCreationNanos();
+                selfCreationNanos += c.getSelfCreationNanos();
+            }
+
+            this.key = key;
+            this.resolutions = resolutions;
+            this.instances = instances;
+            this.failures = failures;
+            this.creationNanos = creationNanos;
+            this.selfCreationNanos = selfCreationNanos;
+        }
+
+        public Key<?> getKey() {
+            return key;
+        }
+
+        /**
+         * @return number of lookups of the binding, including lookups of an already created scoped instance
+         */
+        public long getResolutions() {
+            return resolutions;
+        }
+
+        /**
+         * @return number of instances created by the binding
+         */
+        public long getInstances() {
+            return instances;
+        }
+
+        /**
+         * @return number of instance creation attempts that failed with an exception
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return cumulative creation time of the instances, including creation of their dependencies
+         */
+        public long getCreationNanos() {
+            return creationNanos;
+        }
+
+        /**
+         * @return cumulative creation time of the instances, excluding creation of their dependencies
+         */
+        public long getSelfCreationNanos() {
+            return selfCreationNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "BindingMetrics{key=" + key
+                    + ", resolutions=" + resolutions
+                    + ", instances=" + instances
+                    + ", failures=" + failures
+                    + ", creationNanos=" + creationNanos
+                    + ", selfCreationNanos=" + selfCreationNanos + '}';
+        }
+    }
+}
@@ -39,10 +39,18 @@ class CustomProvidersProvider<T> implements NamedProvider<T> {
     @Override
     public T get() {
         Provider<? extends T> customProvider = providerOfProviders.get();
-        injector.trace(() -> "Invoking " + getName());
+        injector.trace("Invoking %s", this);
         return customProvider.get();
     }
 
+    Class<? extends Provider<? extends T>> getProviderType() {
+        return providerType;
+    }
+
+    Provider<Provider<? extends T>> getProviderOfProviders() {
+        return providerOfProviders;
+    }
+
     @Override
     public String getName() {
         return "custom provider of type " + providerType.getName();
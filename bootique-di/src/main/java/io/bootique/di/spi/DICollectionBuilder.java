@@ -54,10 +54,10 @@ public abstract class DICollectionBuilder<K, E> implements ScopeBuilder {
     protected Provider<E> createProviderProvider(Class<? extends Provider<? extends E>> providerType) {
         Key<? extends Provider<? extends E>> providerKey = Key.get(providerType);
         Provider<Provider<? extends E>> providerProvider = () -> {
-            injector.trace(() -> "Resolving custom provider of type " + providerType);
+            injector.trace("Resolving custom provider of type %s", providerType);
             if(!injector.hasProvider(providerKey)) {
                 // create new provider
-                Provider<Provider<? extends E>> provider0 = new ConstructorInjectingProvider<>(providerType, injector);
+                Provider<Provider<? extends E>> provider0 = injector.createConstructorProvider(providerType);
                 Provider<Provider<? extends E>> provider1 = new FieldInjectingProvider<>(provider0, injector);
                 if(injector.isMethodInjectionEnabled()) {
                     provider1 = new MethodInjectingProvider<>(provider1, injector);
@@ -86,7 +86,7 @@ public abstract class DICollectionBuilder<K, E> implements ScopeBuilder {
         if(!injector.hasProvider(key)) {
             injector.putBinding(key, (Provider<SubT>) null);
         }
-        return () -> injector.getInstance(key);
+        return new ElementProvider<>(injector, key);
     }
 
     @Override
@@ -99,6 +99,11 @@ public abstract class DICollectionBuilder<K, E> implements ScopeBuilder {
         in(injector.getSingletonScope());
     }
 
+    @Override
+    public void inThreadScope() {
+        in(injector.getThreadScope());
+    }
+
     @Override
     public void withoutScope() {
         in(injector.getNoScope());
@@ -108,4 +113,27 @@ public abstract class DICollectionBuilder<K, E> implements ScopeBuilder {
     public void initOnStartup() {
         injector.markForEarlySetup(bindingKey);
     }
+
+    /**
+     * A provider of a collection element bound to its own key.
+     */
+    static class ElementProvider<T> implements Provider<T> {
+
+        private final DefaultInjector injector;
+        private final Key<T> key;
+
+        ElementProvider(DefaultInjector injector, Key<T> key) {
+            this.injector = injector;
+            this.key = key;
+        }
+
+        @Override
+        public T get() {
+            return injector.getInstance(key);
+        }
+
+        Key<T> getKey() {
+            return key;
+        }
+    }
 }
@@ -65,10 +65,7 @@ class DefaultBindingBuilder<T> implements BindingBuilder<T> {
         if(!bindingKey.equals(key)) {
             implementationKey = key;
             injector.putBinding(implementationKey, (Provider) null);
-            addBinding(() -> {
-                injector.trace(() -> "Target implementation is " + implementationKey);
-                return injector.getProvider(implementationKey).get();
-            });
+            addBinding(new ImplementationProvider<>(injector, implementationKey));
         }
         return this;
     }
@@ -90,14 +87,14 @@ class DefaultBindingBuilder<T> implements BindingBuilder<T> {
     public BindingBuilder<T> toProvider(Class<? extends Provider<? extends T>> providerType) {
         // Actual provider instance is resolved lazily, so it could be bound to other implementation
         Provider<Provider<? extends T>> providerProvider = () -> {
-            injector.trace(() -> "Resolving custom provider of type " + providerType);
+            injector.trace("Resolving custom provider of type %s", providerType);
             Binding<? extends Provider<? extends T>> binding = injector.getBinding(Key.get(providerType));
             if(binding != null) {
                 // get existing provider
                 return binding.getScoped().get();
             } else {
                 // create new provider and inject its members
-                Provider<Provider<? extends T>> provider0 = new ConstructorInjectingProvider<>(providerType, injector);
+                Provider<Provider<? extends T>> provider0 = injector.createConstructorProvider(providerType);
                 Provider<Provider<? extends T>> provider1 = new FieldInjectingProvider<>(provider0, injector);
                 if(injector.isMethodInjectionEnabled()) {
                     provider1 = new MethodInjectingProvider<>(provider1, injector);
@@ -157,6 +154,11 @@ class DefaultBindingBuilder<T> implements BindingBuilder<T> {
         in(injector.getSingletonScope());
     }
 
+    @Override
+    public void inThreadScope() {
+        in(injector.getThreadScope());
+    }
+
     @Override
     public void initOnStartup() {
         injector.markForEarlySetup(bindingKey);
@@ -165,4 +167,27 @@ class DefaultBindingBuilder<T> implements BindingBuilder<T> {
         }
     }
 
+    /**
+     * A provider that delegates to the binding of the implementation key.
+     */
+    static class ImplementationProvider<T> implements Provider<T> {
+
+        private final DefaultInjector injector;
+        private final Key<? extends T> implementationKey;
+
+        ImplementationProvider(DefaultInjector injector, Key<? extends T> implementationKey) {
+            this.injector = injector;
+            this.implementationKey = implementationKey;
+        }
+
+        @Override
+        public T get() {
+            injector.trace("Target implementation is %s", implementationKey);
+            return injector.getProvider(implementationKey).get();
+        }
+
+        Key<? extends T> getImplementationKey() {
+            return implementationKey;
+        }
+    }
 }
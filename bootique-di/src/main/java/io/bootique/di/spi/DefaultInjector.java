@@ -29,7 +29,10 @@ import io.bootique.di.Scope;
 import javax.inject.Provider;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -37,9 +40,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Supplier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A default implementations of a DI injector.
@@ -52,39 +59,83 @@ public class DefaultInjector implements Injector {
         DISABLE_DYNAMIC_BINDINGS,
         ENABLE_METHOD_INJECTION,
         DISABLE_TRACE,
-        DISABLE_PROXY
+        DISABLE_PROXY,
+        DISABLE_METHOD_HANDLES,
+        ENABLE_GENERATED_FACTORIES,
+        FREEZE_BINDINGS,
+        PARALLEL_EARLY_SETUP,
+        VALIDATE_ON_BUILD,
+        ENABLE_INSTRUMENTATION,
+        PROFILE_STARTUP
     }
 
     private final DefaultScope singletonScope;
+    private final DefaultScope threadScope;
     private final Scope noScope;
 
     private final DefaultBinder binder;
     private final Map<Key<?>, Binding<?>> bindings;
     private final Map<Key<?>, Decoration<?>> decorations;
     private final ProvidesHandler providesHandler;
-    private final InjectionStack injectionStack;
-    private final InjectionTrace injectionTrace;
+    private final ThreadLocal<ResolutionContext> resolutionContext;
     private final Scope defaultScope;
     private final InjectorPredicates predicates;
     private final Set<Key<?>> earlySetupSet;
     private final Map<Class<?>, List<Key<?>>> keysByRawType;
+    private final InvokerFactory invokerFactory;
+    private final ClassValue<FieldInjectionPlan> fieldInjectionPlans;
+    private final ClassValue<MethodInjectionPlan> methodInjectionPlans;
+    private final Map<Method, InvokerFactory.MethodInvoker> proxyMethodInvokers;
+    private final ClassValue<Optional<GeneratedFactory<?>>> generatedFactories;
 
     private final boolean allowDynamicBinding;
     private final boolean allowOverride;
     private final boolean allowMethodInjection;
     private final boolean injectionTraceEnabled;
     private final boolean allowProxyCreation;
+    private final boolean parallelEarlySetup;
+    private final boolean instrumentationEnabled;
+
+    // whether the instrumented bindings are measured now. Startup profiling alone only needs the measurements until
+    // the injector is built, so they are turned off after that
+    private volatile boolean instrumentationActive;
+
+    // null unless metrics are collected
+    private final InjectorMetrics metrics;
 
     private volatile boolean isShutdown;
 
+    // keys of the services initialized on startup, kept for introspection
+    private volatile Set<Key<?>> earlySetupKeys;
+
+    // null unless startup profiling is enabled
+    private final StartupReport startupReport;
+
+    // immutable copy of the startup bindings, if frozen; set to null on shutdown
+    private volatile FrozenBindingTable frozenBindings;
+
     DefaultInjector(BQModule... modules) {
         this(Collections.emptySet(), new InjectorPredicates(), modules);
     }
 
     public DefaultInjector(Set<Options> options, InjectorPredicates predicates, BQModule... modules) {
+        this(options, predicates, null, modules);
+    }
+
+    /**
+     * @param metrics per-binding metrics collector or null if metrics are not collected
+     */
+    public DefaultInjector(
+            Set<Options> options,
+            InjectorPredicates predicates,
+            InjectorMetrics metrics,
+            BQModule... modules) {
+
+        StartupReport.Builder profile = options.contains(Options.PROFILE_STARTUP) ? new StartupReport.Builder() : null;
         this.predicates = predicates;
 
         this.singletonScope = new DefaultScope();
+        this.threadScope = new ThreadScope();
         this.noScope = NoScope.INSTANCE;
         if(options.contains(Options.SINGLETON_SCOPE_BY_DEFAULT)) {
             this.defaultScope = singletonScope;
@@ -97,15 +148,53 @@ public class DefaultInjector implements Injector {
         this.allowMethodInjection = options.contains(Options.ENABLE_METHOD_INJECTION);
         this.injectionTraceEnabled = !options.contains(Options.DISABLE_TRACE);
         this.allowProxyCreation = !options.contains(Options.DISABLE_PROXY);
+        this.parallelEarlySetup = options.contains(Options.PARALLEL_EARLY_SETUP);
+        // creation time of the services initialized on startup and metrics are collected by the instrumentation
+        this.metrics = metrics;
+        this.instrumentationEnabled = options.contains(Options.ENABLE_INSTRUMENTATION)
+                || profile != null
+                || metrics != null;
+        this.instrumentationActive = instrumentationEnabled;
+        this.earlySetupKeys = Collections.emptySet();
 
         this.bindings = new ConcurrentHashMap<>();
         this.decorations = new ConcurrentHashMap<>();
-        this.injectionStack = new InjectionStack();
-        this.injectionTrace = injectionTraceEnabled ? new InjectionTrace() : null;
+        this.resolutionContext = ThreadLocal.withInitial(() -> new ResolutionContext(injectionTraceEnabled));
         this.providesHandler = new ProvidesHandler(this);
         this.binder = new DefaultBinder(this);
         this.earlySetupSet = Collections.newSetFromMap(new ConcurrentHashMap<>());
         this.keysByRawType = new ConcurrentHashMap<>();
+        this.invokerFactory = options.contains(Options.DISABLE_METHOD_HANDLES)
+                ? ReflectionInvokerFactory.INSTANCE
+                : MethodHandleInvokerFactory.INSTANCE;
+        this.singletonScope.setInvokerFactory(invokerFactory);
+        this.threadScope.setInvokerFactory(invokerFactory);
+        this.fieldInjectionPlans = new ClassValue<>() {
+            @Override
+            protected FieldInjectionPlan computeValue(Class<?> type) {
+                return FieldInjectionPlan.build(type, DefaultInjector.this);
+            }
+        };
+        this.methodInjectionPlans = new ClassValue<>() {
+            @Override
+            protected MethodInjectionPlan computeValue(Class<?> type) {
+                return MethodInjectionPlan.build(type, DefaultInjector.this);
+            }
+        };
+        this.proxyMethodInvokers = new ConcurrentHashMap<>();
+
+        // generated code only knows the standard annotations, and would silently skip the custom ones
+        if(options.contains(Options.ENABLE_GENERATED_FACTORIES) && predicates.hasCustomInjectionPredicates()) {
+            throwException("Generated factories can't be used with custom inject, qualifier or provider predicates");
+        }
+        this.generatedFactories = options.contains(Options.ENABLE_GENERATED_FACTORIES)
+                ? new ClassValue<>() {
+                    @Override
+                    protected Optional<GeneratedFactory<?>> computeValue(Class<?> type) {
+                        return loadGeneratedFactory(type);
+                    }
+                }
+                : null;
 
         // bind self for injector injection...
         binder.bind(Injector.class).toInstance(this);
@@ -113,17 +202,66 @@ public class DefaultInjector implements Injector {
         // bind modules
         if (modules != null && modules.length > 0) {
             for (BQModule module : modules) {
+                long configureStart = System.nanoTime();
                 module.configure(binder);
+                long scanStart = System.nanoTime();
                 providesHandler.bindingsFromAnnotatedMethods(module);
+                if(profile != null) {
+                    profile.module(module.getClass(), scanStart - configureStart, System.nanoTime() - scanStart);
+                }
             }
         }
 
+        long phaseStart = System.nanoTime();
         applyDecorators();
+        if(profile != null) {
+            profile.decorators(System.nanoTime() - phaseStart);
+        }
+
+        if(options.contains(Options.VALIDATE_ON_BUILD)) {
+            phaseStart = System.nanoTime();
+            validate();
+            if(profile != null) {
+                profile.validation(System.nanoTime() - phaseStart);
+            }
+        }
+
+        phaseStart = System.nanoTime();
         earlySetup();
+        if(profile != null) {
+            profile.earlySetup(System.nanoTime() - phaseStart);
+            for (Key<?> key : earlySetupKeys) {
+                profile.service(key, bindings.get(key).getStats());
+            }
+        }
+
+        if(options.contains(Options.FREEZE_BINDINGS)) {
+            this.frozenBindings = FrozenBindingTable.of(bindings);
+        }
+
+        this.startupReport = profile != null ? profile.build() : null;
+
+        if(!options.contains(Options.ENABLE_INSTRUMENTATION) && metrics == null) {
+            this.instrumentationActive = false;
+        }
+    }
+
+    /**
+     * Returns timings of the injector startup, if startup profiling is enabled.
+     *
+     * @return startup report or null if startup profiling is disabled
+     * @see io.bootique.di.DIBootstrap.InjectorBuilder#profileStartup()
+     */
+    public StartupReport getStartupReport() {
+        return startupReport;
     }
 
-    InjectionStack getInjectionStack() {
-        return injectionStack;
+    /**
+     * Returns resolution state of the current thread. Callers that need it more than once should keep a reference
+     * instead of calling this method repeatedly.
+     */
+    ResolutionContext getResolutionContext() {
+        return resolutionContext.get();
     }
 
     DefaultBinder getBinder() {
@@ -138,21 +276,142 @@ public class DefaultInjector implements Injector {
         return predicates;
     }
 
+    /**
+     * Returns a cached field injection plan for a given concrete class, creating it on first access.
+     */
+    FieldInjectionPlan getFieldInjectionPlan(Class<?> type) {
+        return fieldInjectionPlans.get(type);
+    }
+
+    /**
+     * Returns a cached method injection plan for a given concrete class, creating it on first access.
+     */
+    MethodInjectionPlan getMethodInjectionPlan(Class<?> type) {
+        return methodInjectionPlans.get(type);
+    }
+
+    /**
+     * Returns a generated factory for a given concrete class, or null if generated factories are disabled or no
+     * factory was generated for this class.
+     */
+    @SuppressWarnings("unchecked")
+    <T> GeneratedFactory<T> getGeneratedFactory(Class<T> type) {
+        return generatedFactories != null
+                ? (GeneratedFactory<T>) generatedFactories.get(type).orElse(null)
+                : null;
+    }
+
+    private Optional<GeneratedFactory<?>> loadGeneratedFactory(Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader();
+        // JDK classes, interfaces and arrays can't have generated factories
+        if(classLoader == null || type.isInterface() || type.isArray()) {
+            return Optional.empty();
+        }
+
+        String factoryName = type.getName() + GeneratedFactory.CLASS_NAME_SUFFIX;
+        Class<?> factoryType;
+        try {
+            factoryType = Class.forName(factoryName, true, classLoader);
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        }
+
+        // a class with a matching name that is not a factory of this type is not ours to use
+        if(!isGeneratedFactoryOf(factoryType, type)) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of((GeneratedFactory<?>) factoryType.getConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            return throwException("Error instantiating generated factory '%s'", e, factoryName);
+        }
+    }
+
+    private static boolean isGeneratedFactoryOf(Class<?> factoryType, Class<?> type) {
+        for (Type factoryInterface : factoryType.getGenericInterfaces()) {
+            if (factoryInterface instanceof ParameterizedType) {
+                ParameterizedType parameterized = (ParameterizedType) factoryInterface;
+                if (parameterized.getRawType() == GeneratedFactory.class) {
+                    return parameterized.getActualTypeArguments()[0] == type;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a provider of new instances of a given class, preferring a generated factory of that class
+     * over the reflective constructor injection.
+     */
+    @SuppressWarnings("unchecked")
+    <T> Provider<T> createConstructorProvider(Class<? extends T> implementation) {
+        GeneratedFactory<T> factory = (GeneratedFactory<T>) getGeneratedFactory(implementation);
+        return factory != null
+                ? new GeneratedFactoryProvider<>(factory, implementation, this)
+                : new ConstructorInjectingProvider<>(implementation, this);
+    }
+
+    InvokerFactory getInvokerFactory() {
+        return invokerFactory;
+    }
+
+    /**
+     * Returns a cached invoker for a method called via the circular dependency proxy.
+     */
+    InvokerFactory.MethodInvoker getProxyMethodInvoker(Method method) {
+        return proxyMethodInvokers.computeIfAbsent(method, m -> {
+            m.setAccessible(true);
+            return invokerFactory.methodInvoker(m);
+        });
+    }
+
     @SuppressWarnings("unchecked")
     <T> Binding<T> getBinding(Key<T> key) {
+        Objects.requireNonNull(key, "Null key");
+
+        // checked first, as the frozen table is removed only after the scopes are shut down
         if(isShutdown) {
             throwException("Injector is shutdown");
         }
+
+        // fast path for the frozen injector
+        FrozenBindingTable frozen = frozenBindings;
+        if(frozen != null) {
+            Binding<?> binding = frozen.get(key);
+            if(binding != null) {
+                return (Binding<T>) binding;
+            }
+        }
+
         // may return null - this is intentionally allowed in this non-public method
-        return (Binding<T>) bindings.get(Objects.requireNonNull(key, "Null key"));
+        return (Binding<T>) bindings.get(key);
     }
 
     <T> void putBinding(Key<T> bindingKey, Provider<T> provider) {
-        putBinding(bindingKey, new Binding<>(bindingKey, wrapProvider(bindingKey, provider), defaultScope, false));
+        putBinding(bindingKey, new Binding<>(bindingKey, wrapProvider(bindingKey, provider), defaultScope, false, createBindingStats(bindingKey)));
     }
 
     <T> void putOptionalBinding(Key<T> bindingKey, Provider<T> provider) {
-        putBinding(bindingKey, new Binding<>(bindingKey, wrapProvider(bindingKey, provider), defaultScope, true));
+        putBinding(bindingKey, new Binding<>(bindingKey, wrapProvider(bindingKey, provider), defaultScope, true, createBindingStats(bindingKey)));
+    }
+
+    /**
+     * @return whether the instrumented bindings should be measured at this moment
+     */
+    boolean isInstrumentationActive() {
+        return instrumentationActive;
+    }
+
+    /**
+     * @return statistics for a new binding, or null if the instrumentation is disabled
+     */
+    BindingStats createBindingStats(Key<?> bindingKey) {
+        if(!instrumentationEnabled) {
+            return null;
+        }
+
+        return new BindingStats(this, metrics != null ? metrics.bindingCreated(bindingKey) : null);
     }
 
     /**
@@ -162,7 +421,8 @@ public class DefaultInjector implements Injector {
         if(isShutdown) {
             throwException("Injector is shutdown");
         }
-        Binding<T> binding = new Binding<>(bindingKey, wrapProvider(bindingKey, provider), defaultScope, false);
+        checkNotFrozen(bindingKey);
+        Binding<T> binding = new Binding<>(bindingKey, wrapProvider(bindingKey, provider), defaultScope, false, createBindingStats(bindingKey));
         Binding<?> oldBinding = bindings.put(bindingKey, binding);
         if(oldBinding == null) {
             throwException("No binding to override for key %s", bindingKey);
@@ -173,6 +433,7 @@ public class DefaultInjector implements Injector {
         if(isShutdown) {
             throwException("Injector is shutdown");
         }
+        checkNotFrozen(bindingKey);
         Binding<?> oldBinding = bindings.put(bindingKey, binding);
         if(oldBinding == null) {
             keysByRawType.computeIfAbsent(bindingKey.getType().getRawType(), type -> new ArrayList<>(1))
@@ -183,6 +444,17 @@ public class DefaultInjector implements Injector {
         }
     }
 
+    /**
+     * New bindings can still be added to the frozen injector (e.g. lazily created providers), but the frozen ones
+     * can't be replaced, as lookups would never see the new binding.
+     */
+    private void checkNotFrozen(Key<?> bindingKey) {
+        FrozenBindingTable frozen = frozenBindings;
+        if(frozen != null && frozen.get(bindingKey) != null) {
+            throwException("Unable to rebind key %s, injector bindings are frozen.", bindingKey);
+        }
+    }
+
     /**
      * <ul>
      *     <li> Can always override optional bindings
@@ -247,6 +519,7 @@ public class DefaultInjector implements Injector {
     }
 
     <T> T getInstanceWithCycleProtection(Key<T> key, boolean fromProxy) {
+        InjectionStack injectionStack = resolutionContext.get().getInjectionStack();
         if(!injectionStack.push(key)) {
             // cycle detected in dependency
             // 1. try to create proxy
@@ -265,7 +538,7 @@ public class DefaultInjector implements Injector {
         }
 
         try {
-            return getProvider(key).get();
+            return InjectorEvents.AVAILABLE ? InjectorEvents.resolve(this, key) : getProvider(key).get();
         } finally {
             injectionStack.pop();
         }
@@ -284,7 +557,10 @@ public class DefaultInjector implements Injector {
         }
         InvocationHandler handler = new ProxyInvocationHandler<>(this, key);
         T proxyInstance = (T) Proxy.newProxyInstance(bindingClass.getClassLoader(), new Class<?>[]{bindingClass}, handler);
-        trace(() -> "Create proxy for binding " + key);
+        trace("Create proxy for binding %s", key);
+        if (InjectorEvents.AVAILABLE) {
+            InjectorEvents.proxyCreated(key, bindingClass);
+        }
         return proxyInstance;
     }
 
@@ -295,6 +571,12 @@ public class DefaultInjector implements Injector {
             binding = createDynamicBinding(key);
         }
 
+        // counted here and not by the scoped provider, so that the scope gets its own provider back
+        BindingStats stats = binding.getStats();
+        if(stats != null) {
+            stats.resolved();
+        }
+
         return predicates.wrapProvider(binding.getScoped());
     }
 
@@ -321,7 +603,7 @@ public class DefaultInjector implements Injector {
             }
 
             Class<T> implementation = (Class<T>)key.getType().getRawType();
-            Provider<T> provider = new ConstructorInjectingProvider<>(implementation, this);
+            Provider<T> provider = createConstructorProvider(implementation);
 
             Scope scope = defaultScope;
             if(oldBinding != null && oldBinding.getScope() != defaultScope) {
@@ -330,7 +612,10 @@ public class DefaultInjector implements Injector {
                 scope = singletonScope;
             }
 
-            return new Binding<>(key, wrapInMemberInjectionProviders(key, provider), scope, false);
+            if (InjectorEvents.AVAILABLE) {
+                InjectorEvents.dynamicBindingCreated(key, implementation);
+            }
+            return new Binding<>(key, wrapInMemberInjectionProviders(key, provider), scope, false, createBindingStats(key));
         });
     }
 
@@ -356,11 +641,24 @@ public class DefaultInjector implements Injector {
             return;
         }
         isShutdown = true;
+        if (InjectorEvents.AVAILABLE) {
+            InjectorEvents.shutdown(bindings.size(), this::shutdownScopes);
+        } else {
+            shutdownScopes();
+        }
+    }
+
+    private void shutdownScopes() {
+        frozenBindings = null;
+        earlySetupKeys = Collections.emptySet();
+        // per-thread instances may depend on singletons, so they go first
+        threadScope.shutdown();
         singletonScope.shutdown();
         bindings.clear();
         decorations.clear();
-        injectionStack.reset();
+        resolutionContext.remove();
         keysByRawType.clear();
+        proxyMethodInvokers.clear();
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
@@ -373,6 +671,10 @@ public class DefaultInjector implements Injector {
         return singletonScope;
     }
 
+    DefaultScope getThreadScope() {
+        return threadScope;
+    }
+
     Scope getDefaultScope() {
         return defaultScope;
     }
@@ -385,6 +687,14 @@ public class DefaultInjector implements Injector {
         return allowMethodInjection;
     }
 
+    boolean isDynamicBindingAllowed() {
+        return allowDynamicBinding;
+    }
+
+    boolean isProxyCreationAllowed() {
+        return allowProxyCreation;
+    }
+
     boolean isInjectionTraceEnabled() {
         return injectionTraceEnabled;
     }
@@ -393,6 +703,45 @@ public class DefaultInjector implements Injector {
         return Collections.unmodifiableMap(bindings);
     }
 
+    Map<Key<?>, Decoration<?>> getAllDecorations() {
+        return Collections.unmodifiableMap(decorations);
+    }
+
+    Set<Key<?>> getEarlySetupKeys() {
+        return earlySetupKeys;
+    }
+
+    /**
+     * Exports the binding graph of this injector in JSON format. The graph includes all the bindings, with their scope,
+     * provider kind, implementation, decorators and dependencies, and unbound keys the bindings depend on. If the
+     * instrumentation is enabled, each binding also has the number of instances created and the creation time.
+     *
+     * @return JSON document with "nodes" and "edges" arrays
+     * @see io.bootique.di.DIBootstrap.InjectorBuilder#enableInstrumentation()
+     */
+    public String exportGraphAsJson() {
+        return BindingGraph.build(this).toJson();
+    }
+
+    /**
+     * Exports the binding graph of this injector in Graphviz DOT format. The content is the same as in
+     * {@link #exportGraphAsJson()}. Provider dependencies are drawn with dashed lines, services initialized on startup
+     * with bold borders.
+     *
+     * @return DOT "digraph" definition
+     */
+    public String exportGraphAsDot() {
+        return BindingGraph.build(this).toDot();
+    }
+
+    /**
+     * Checks all the bindings and their dependencies without creating any objects, throwing a single exception that
+     * lists all the problems found.
+     */
+    void validate() {
+        new BindingValidator(this).validate();
+    }
+
     @SuppressWarnings({"rawtypes", "unchecked"})
     private void applyDecorators() {
         for (Entry<Key<?>, Decoration<?>> e : decorations.entrySet()) {
@@ -416,10 +765,72 @@ public class DefaultInjector implements Injector {
      * Init all services that a marked for early setup
      */
     private void earlySetup() {
-        earlySetupSet.forEach(this::getInstance);
+        earlySetupKeys = Set.copyOf(earlySetupSet);
+        if (parallelEarlySetup && earlySetupSet.size() > 1) {
+            parallelEarlySetup();
+        } else {
+            earlySetupSet.forEach(this::getInstance);
+        }
         earlySetupSet.clear();
     }
 
+    /**
+     * Initializes eager singletons concurrently. Dependencies shared by several of them are created once, by whichever
+     * thread gets to them first, while the others wait on the singleton provider, so independent subtrees of the
+     * dependency graph are created in parallel.
+     */
+    private void parallelEarlySetup() {
+
+        List<Key<?>> keys = new ArrayList<>(earlySetupSet);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(keys.size());
+        List<Key<?>> failedKeys = new ArrayList<>();
+
+        ForkJoinPool pool = new ForkJoinPool(
+                Math.min(keys.size(), Runtime.getRuntime().availableProcessors()),
+                earlySetupThreadFactory(),
+                null,
+                false);
+        try {
+            for (Key<?> key : keys) {
+                tasks.add(pool.submit(() -> getInstance(key)));
+            }
+
+            for (int i = 0; i < keys.size(); i++) {
+                try {
+                    tasks.get(i).join();
+                } catch (RuntimeException e) {
+                    failedKeys.add(keys.get(i));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // A failure may be caused by the concurrency itself, e.g. a circular dependency resolved by a proxy within
+        // one thread is reported as a deadlock when its ends are created by different threads. So retry the failed
+        // keys sequentially, in the original order. This also makes the reported exception deterministic.
+        failedKeys.forEach(this::getInstance);
+    }
+
+    /**
+     * Creates worker threads that look like the constructing thread to the eager singletons. Default workers get
+     * the system class loader as their context class loader, that would break the singletons relying on it
+     * (ServiceLoader, JDBC, JNDI lookups, etc.)
+     */
+    private static ForkJoinPool.ForkJoinWorkerThreadFactory earlySetupThreadFactory() {
+
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        return pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setContextClassLoader(contextClassLoader);
+            thread.setName("bootique-di-early-setup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
     /**
      * Wraps provider in traceable provider if trace is enabled
      */
@@ -432,30 +843,37 @@ public class DefaultInjector implements Injector {
     }
 
     /**
-     * @param messageSupplier trace message supplier
+     * Records a message for the currently resolved key. The message is only formatted if an error occurs, so
+     * callers should pass raw values as arguments instead of building strings.
+     *
+     * @param format {@link String#format(String, Object...)} message format
+     * @param arg format argument, {@link NamedProvider} arguments are replaced with their names
      */
-    void trace(Supplier<String> messageSupplier) {
-        if (injectionTraceEnabled) {
-            injectionTrace.updateMessage(messageSupplier);
-        }
+    void trace(String format, Object arg) {
+        trace(format, InjectionTrace.NO_INDEX, arg, null);
     }
 
-    /**
-     * Push currently resolving key into trace stack
-     * @param key that is resolving
-     */
-    void tracePush(Key<?> key) {
-        if (injectionTraceEnabled) {
-            injectionTrace.push(key);
-        }
+    void trace(String format, Object arg1, Object arg2) {
+        trace(format, InjectionTrace.NO_INDEX, arg1, arg2);
+    }
+
+    void trace(String format, int index) {
+        trace(format, index, null, null);
+    }
+
+    void trace(String format, int index, Object arg) {
+        trace(format, index, arg, null);
     }
 
     /**
-     * Pop key out of trace stack
+     * @param format {@link String#format(String, Object...)} message format
+     * @param index first format argument, e.g. an index of the resolved argument
+     * @param arg1 format argument, {@link NamedProvider} arguments are replaced with their names
+     * @param arg2 format argument, {@link NamedProvider} arguments are replaced with their names
      */
-    void tracePop() {
+    void trace(String format, int index, Object arg1, Object arg2) {
         if (injectionTraceEnabled) {
-            injectionTrace.pop();
+            resolutionContext.get().getInjectionTrace().updateMessage(format, index, arg1, arg2);
         }
     }
 
@@ -519,13 +937,7 @@ public class DefaultInjector implements Injector {
             return ex;
         }
 
-        InjectionTraceElement[] traceElements = new InjectionTraceElement[injectionTrace.size()];
-        InjectionTraceElement element;
-        int i = 0;
-        while((element = injectionTrace.pop()) != null) {
-            traceElements[i++] = element;
-        }
-
+        InjectionTraceElement[] traceElements = resolutionContext.get().getInjectionTrace().drain();
         ex.setInjectionTrace(traceElements);
         return ex;
     }
@@ -24,13 +24,17 @@ import io.bootique.di.Scope;
 
 import javax.inject.Provider;
 import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * An implementation of a DI scopes with support scope events.
@@ -38,14 +42,35 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 public class DefaultScope implements Scope {
 
     private static final String SPECIAL_EVENT = AfterScopeEnd.class.getName();
+    private static final AnnotatedMethod[] NO_METHODS = new AnnotatedMethod[0];
 
     protected final Collection<Class<? extends Annotation>> eventTypes;
     protected final Map<String, Collection<ScopeEventBinding>> listeners;
 
+    // listener bindings of each registered object, so that they can be removed without scanning all the listeners.
+    // Objects are referenced weakly, entries of garbage collected objects and their listener bindings are expunged on
+    // the next add or remove.
+    private final Map<Object, Registration[]> registrations;
+    private final ReferenceQueue<Object> collectedObjects;
+
+    // annotated public methods of each class, shared by all the scopes and resolved against the event types of a given
+    // scope on registration, so that new short-lived scopes don't rescan the classes
+    private static final ClassValue<AnnotatedMethod[]> ANNOTATED_METHODS = new ClassValue<>() {
+        @Override
+        protected AnnotatedMethod[] computeValue(Class<?> type) {
+            return findAnnotatedMethods(type);
+        }
+    };
+
+    // core reflection is the cheapest to set up, injector replaces it with its own strategy for the scopes it owns
+    private InvokerFactory invokerFactory = ReflectionInvokerFactory.INSTANCE;
+
     @SafeVarargs
     public DefaultScope(Class<? extends Annotation>... customEventTypes) {
         this.listeners = new ConcurrentHashMap<>();
         this.eventTypes = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        this.registrations = new ConcurrentHashMap<>();
+        this.collectedObjects = new ReferenceQueue<>();
 
         // initialize the event listener data structures in constructor to avoid
         // synchronization concerns on everything but per-event lists.
@@ -60,7 +85,8 @@ public class DefaultScope implements Scope {
         }
 
         for (Class<? extends Annotation> type : eventTypes) {
-            listeners.put(type.getName(), new ConcurrentLinkedQueue<>());
+            // bindings don't override equals, so each of them can be removed from the set in constant time
+            listeners.put(type.getName(), ConcurrentHashMap.newKeySet());
         }
     }
 
@@ -81,42 +107,125 @@ public class DefaultScope implements Scope {
      */
     public void addScopeEventListener(Object object) {
 
-        // TODO: cache metadata for non-singletons scopes for performance
+        AnnotatedMethod[] methods = ANNOTATED_METHODS.get(object.getClass());
 
-        // 'getMethods' grabs public method from the class and its superclasses...
-        for (Method method : object.getClass().getMethods()) {
+        // most of the objects have no annotated methods at all
+        if (methods.length == 0) {
+            return;
+        }
 
-            for (Class<? extends Annotation> annotationType : eventTypes) {
+        Registration[] removable = null;
+        int removableCount = 0;
 
-                if (method.isAnnotationPresent(annotationType)) {
-                    String typeName = annotationType.getName();
+        for (AnnotatedMethod method : methods) {
+            for (String typeName : method.annotationTypes) {
 
-                    Collection<ScopeEventBinding> eventListeners = listeners.get(typeName);
-                    eventListeners.add(new ScopeEventBinding(object, method));
+                // skip annotations that are not the event types of this scope
+                Collection<ScopeEventBinding> eventListeners = listeners.get(typeName);
+                if (eventListeners == null) {
+                    continue;
+                }
+
+                ScopeEventBinding binding = new ScopeEventBinding(object, method.method, method.invoker(invokerFactory));
+                eventListeners.add(binding);
+
+                // no removal of Scope providers, so no need to track them
+                if (!SPECIAL_EVENT.equals(typeName)) {
+                    if (removable == null) {
+                        removable = new Registration[2];
+                    } else if (removableCount == removable.length) {
+                        removable = Arrays.copyOf(removable, removableCount * 2);
+                    }
+
+                    removable[removableCount++] = new Registration(eventListeners, binding);
                 }
             }
         }
+
+        if (removableCount > 0) {
+            expungeCollectedObjects();
+            registrations.merge(
+                    new ObjectRef(object, collectedObjects),
+                    removableCount < removable.length ? Arrays.copyOf(removable, removableCount) : removable,
+                    DefaultScope::concat);
+        }
     }
 
-    public void removeScopeEventListener(Object object) {
+    private static AnnotatedMethod[] findAnnotatedMethods(Class<?> type) {
 
-        // TODO: 2 level-deep full scan will not be very efficient for short scopes. Right
-        // now this would only affect the unit test scope, but if we start creating the
-        // likes of HTTP request scope, we may need to create a faster listener
-        // removal algorithm.
+        List<AnnotatedMethod> methods = null;
 
-        for (Entry<String, Collection<ScopeEventBinding>> entry : listeners.entrySet()) {
+        // 'getMethods' grabs public method from the class and its superclasses...
+        for (Method method : type.getMethods()) {
 
-            if (SPECIAL_EVENT.equals(entry.getKey())) {
-                // no scanning and removal of Scope providers ...
-                // for faster scan skip those
+            Annotation[] annotations = method.getAnnotations();
+            if (annotations.length == 0) {
                 continue;
             }
 
-            entry.getValue().removeIf(binding -> binding.getObject() == object);
+            String[] annotationTypes = new String[annotations.length];
+            for (int i = 0; i < annotations.length; i++) {
+                annotationTypes[i] = annotations[i].annotationType().getName();
+            }
+
+            if (methods == null) {
+                methods = new ArrayList<>(2);
+            }
+
+            // allow public methods of non-public classes to be annotated
+            method.setAccessible(true);
+            methods.add(new AnnotatedMethod(method, annotationTypes));
+        }
+
+        return methods != null ? methods.toArray(NO_METHODS) : NO_METHODS;
+    }
+
+    /**
+     * Sets a strategy for invoking event handler methods. Should be called before any listeners are registered, as
+     * the listeners registered earlier keep the invokers created by the previous strategy.
+     */
+    void setInvokerFactory(InvokerFactory invokerFactory) {
+        this.invokerFactory = invokerFactory;
+    }
+
+    /**
+     * Unregisters event handlers of an object previously passed to {@link #addScopeEventListener(Object)}. Handlers
+     * of the {@link AfterScopeEnd} event are left in place. The cost of this call is proportional to the number of
+     * the object handlers, not to the number of all the listeners in this scope.
+     */
+    public void removeScopeEventListener(Object object) {
+
+        expungeCollectedObjects();
+
+        Registration[] removable = registrations.remove(new ObjectLookup(object));
+        if (removable != null) {
+            for (Registration r : removable) {
+                r.eventListeners.remove(r.binding);
+            }
+        }
+    }
+
+    private void expungeCollectedObjects() {
+        Reference<?> ref;
+        while ((ref = collectedObjects.poll()) != null) {
+
+            // unlink the bindings right away instead of waiting for the next event to skip them, as some scopes
+            // post no events until shutdown
+            Registration[] removable = registrations.remove(ref);
+            if (removable != null) {
+                for (Registration r : removable) {
+                    r.eventListeners.remove(r.binding);
+                }
+            }
         }
     }
 
+    private static Registration[] concat(Registration[] r1, Registration[] r2) {
+        Registration[] merged = Arrays.copyOf(r1, r1.length + r2.length);
+        System.arraycopy(r2, 0, merged, r1.length, r2.length);
+        return merged;
+    }
+
     /**
      * Posts a scope event to all registered listeners. There's no predetermined order of
      * event dispatching. An exception thrown by any of the listeners stops further event
@@ -127,13 +236,144 @@ public class DefaultScope implements Scope {
         Collection<ScopeEventBinding> eventListeners = listeners.get(type.getName());
 
         if (eventListeners != null) {
-            // remove listeners that were garbage collected
-            eventListeners.removeIf(listener -> !listener.onScopeEvent(eventParameters));
+            if (InjectorEvents.AVAILABLE) {
+                InjectorEvents.postScopeEvent(this, type, eventListeners,
+                        () -> dispatchScopeEvent(eventListeners, eventParameters));
+            } else {
+                dispatchScopeEvent(eventListeners, eventParameters);
+            }
         }
     }
 
+    private static void dispatchScopeEvent(Collection<ScopeEventBinding> eventListeners, Object[] eventParameters) {
+        // remove listeners that were garbage collected
+        eventListeners.removeIf(listener -> !listener.onScopeEvent(eventParameters));
+    }
+
     @Override
     public <T> Provider<T> scope(Provider<T> unscoped) {
         return new DefaultScopeProvider<>(this, unscoped);
     }
+
+    /**
+     * Cached metadata of a single annotated public method of some class. Invoker is created lazily for the strategy of
+     * the scope that registers the method first, and is recreated only if a scope with a different strategy comes along.
+     */
+    private static class AnnotatedMethod {
+
+        final Method method;
+        final String[] annotationTypes;
+
+        private volatile MethodInvokerRef invoker;
+
+        AnnotatedMethod(Method method, String[] annotationTypes) {
+            this.method = method;
+            this.annotationTypes = annotationTypes;
+        }
+
+        InvokerFactory.MethodInvoker invoker(InvokerFactory invokerFactory) {
+            MethodInvokerRef ref = invoker;
+            if (ref == null || ref.invokerFactory != invokerFactory) {
+                ref = new MethodInvokerRef(invokerFactory, invokerFactory.methodInvoker(method));
+                invoker = ref;
+            }
+
+            return ref.invoker;
+        }
+    }
+
+    private static class MethodInvokerRef {
+
+        final InvokerFactory invokerFactory;
+        final InvokerFactory.MethodInvoker invoker;
+
+        MethodInvokerRef(InvokerFactory invokerFactory, InvokerFactory.MethodInvoker invoker) {
+            this.invokerFactory = invokerFactory;
+            this.invoker = invoker;
+        }
+    }
+
+    /**
+     * A removable listener binding of a registered object.
+     */
+    private static class Registration {
+
+        final Collection<ScopeEventBinding> eventListeners;
+        final ScopeEventBinding binding;
+
+        Registration(Collection<ScopeEventBinding> eventListeners, ScopeEventBinding binding) {
+            this.eventListeners = eventListeners;
+            this.binding = binding;
+        }
+    }
+
+    /**
+     * A registry key that compares objects by identity. Stored keys reference the objects weakly, lookup keys
+     * strongly, and both kinds are equal to each other when they point to the same object.
+     */
+    private interface IdentityKey {
+        Object referent();
+    }
+
+    private static boolean identityEquals(IdentityKey key, Object other) {
+        if (key == other) {
+            return true;
+        }
+
+        if (!(other instanceof IdentityKey)) {
+            return false;
+        }
+
+        Object referent = key.referent();
+        return referent != null && referent == ((IdentityKey) other).referent();
+    }
+
+    private static final class ObjectRef extends WeakReference<Object> implements IdentityKey {
+
+        private final int hash;
+
+        ObjectRef(Object object, ReferenceQueue<Object> queue) {
+            super(object, queue);
+            this.hash = System.identityHashCode(object);
+        }
+
+        @Override
+        public Object referent() {
+            return get();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return identityEquals(this, other);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class ObjectLookup implements IdentityKey {
+
+        private final Object object;
+
+        ObjectLookup(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public Object referent() {
+            return object;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return identityEquals(this, other);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+    }
 }
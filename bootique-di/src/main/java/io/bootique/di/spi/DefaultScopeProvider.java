@@ -22,20 +22,40 @@ package io.bootique.di.spi;
 import io.bootique.di.DIRuntimeException;
 
 import javax.inject.Provider;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A provider that provides scoping for other providers.
+ * <p>
+ * Each provider creates its instance under its own lock, so independent instances are created in parallel. Locks are
+ * {@link ReentrantLock}s that don't pin virtual threads. Threads waiting for the instances created by other threads
+ * are tracked, and a wait that would close a cycle between several threads (e.g. two threads creating A -&gt; B and
+ * B -&gt; A concurrently) fails with an exception instead of a deadlock.
  */
 public class DefaultScopeProvider<T> implements Provider<T> {
 
+    // how often a waiting thread rechecks for a deadlock, in case the cycle was closed by a thread that missed it
+    private static final long DEADLOCK_CHECK_INTERVAL_MS = 100;
+
+    // providers that threads are waiting for
+    static final Map<Thread, DefaultScopeProvider<?>> WAITING = new ConcurrentHashMap<>();
+
     private final Provider<T> delegate;
     private final DefaultScope scope;
+    final ReentrantLock lock;
 
     private volatile T instance;
 
+    // a thread holding the lock, used for deadlock detection
+    volatile Thread creator;
+
     public DefaultScopeProvider(DefaultScope scope, Provider<T> delegate) {
         this.scope = scope;
         this.delegate = delegate;
+        this.lock = new ReentrantLock();
 
         scope.addScopeEventListener(this);
     }
@@ -44,10 +64,13 @@ public class DefaultScopeProvider<T> implements Provider<T> {
     public T get() {
         T localInstance = instance;
         if (localInstance == null) {
-            synchronized (this) {
+            lock();
+            try {
                 localInstance = instance;
                 if (localInstance == null) {
-                    localInstance = instance = delegate.get();
+                    localInstance = instance = InjectorEvents.AVAILABLE
+                            ? InjectorEvents.createSingleton(delegate)
+                            : delegate.get();
                     if (localInstance == null) {
                         // TODO: can we use injector.throwException() here?
                         throw new DIRuntimeException("Underlying provider (%s) returned NULL instance"
@@ -56,12 +79,127 @@ public class DefaultScopeProvider<T> implements Provider<T> {
 
                     scope.addScopeEventListener(localInstance);
                 }
+            } finally {
+                unlock();
             }
         }
 
         return localInstance;
     }
 
+    private void lock() {
+
+        Thread current = Thread.currentThread();
+        if (!lock.tryLock()) {
+            waitForLock(current);
+        }
+
+        creator = current;
+    }
+
+    private void unlock() {
+        if (lock.getHoldCount() == 1) {
+            creator = null;
+        }
+        lock.unlock();
+    }
+
+    private void waitForLock(Thread current) {
+
+        // register the wait before checking, so that of the two threads closing a cycle at least one sees it
+        WAITING.put(current, this);
+        try {
+            checkDeadlock(current);
+            while (!lock.tryLock(DEADLOCK_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                checkDeadlock(current);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DIRuntimeException("Interrupted while waiting for provider (%s)"
+                    , e, DIUtil.getProviderName(delegate));
+        } finally {
+            WAITING.remove(current);
+        }
+    }
+
+    void checkDeadlock(Thread current) {
+
+        WaitChain cycle = findCycle(current);
+
+        // the chain is read link by link, so a cycle may be made of the links that didn't exist at the same time
+        // (e.g. a provider released by its creator that started waiting for the current thread after that). A real
+        // deadlock doesn't change, so it must look the same when read again
+        if (cycle != null && cycle.isUnchanged()) {
+            throw new DIRuntimeException("Deadlock detected: provider (%s) is locked by a thread waiting for the "
+                    + "current thread, likely a circular dependency created concurrently by several threads"
+                    , DIUtil.getProviderName(delegate));
+        }
+    }
+
+    /**
+     * Follows the chain of "waits for a provider locked by a thread that waits for..." starting from this provider.
+     *
+     * @return a chain that ends with the current thread, or null if the chain ends elsewhere
+     */
+    WaitChain findCycle(Thread current) {
+
+        int maxDepth = WAITING.size() + 1;
+        DefaultScopeProvider<?>[] providers = new DefaultScopeProvider<?>[maxDepth];
+        Thread[] owners = new Thread[maxDepth];
+
+        DefaultScopeProvider<?> waitingFor = this;
+        for (int i = 0; i < maxDepth && waitingFor != null; i++) {
+            Thread owner = waitingFor.creator;
+            if (owner == null) {
+                return null;
+            }
+
+            providers[i] = waitingFor;
+            owners[i] = owner;
+
+            if (owner == current) {
+                return new WaitChain(providers, owners, i + 1);
+            }
+
+            waitingFor = WAITING.get(owner);
+        }
+
+        return null;
+    }
+
+    /**
+     * Providers and threads of a chain of waits as they were observed.
+     */
+    static class WaitChain {
+
+        private final DefaultScopeProvider<?>[] providers;
+        private final Thread[] owners;
+        private final int length;
+
+        WaitChain(DefaultScopeProvider<?>[] providers, Thread[] owners, int length) {
+            this.providers = providers;
+            this.owners = owners;
+            this.length = length;
+        }
+
+        /**
+         * Checks that each provider of the chain is still locked by the same thread, and each thread still waits for
+         * the next provider. The last thread is the current one, that waits for the first provider.
+         */
+        boolean isUnchanged() {
+            for (int i = 0; i < length; i++) {
+                DefaultScopeProvider<?> provider = providers[i];
+                if (!provider.lock.isLocked()
+                        || provider.creator != owners[i]
+                        || WAITING.get(owners[i]) != providers[(i + 1) % length]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
     @AfterScopeEnd
     public void afterScopeEnd() throws Exception {
         Object localInstance = instance;
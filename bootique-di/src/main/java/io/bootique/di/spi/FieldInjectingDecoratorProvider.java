@@ -20,10 +20,10 @@
 package io.bootique.di.spi;
 
 import javax.inject.Provider;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 
 import io.bootique.di.TypeLiteral;
+import io.bootique.di.spi.FieldInjectionPlan.InjectableField;
 
 class FieldInjectingDecoratorProvider<T> implements DecoratorProvider<T> {
 
@@ -43,7 +43,16 @@ class FieldInjectingDecoratorProvider<T> implements DecoratorProvider<T> {
         return new FieldInjectingProvider<T>(delegate.get(undecorated), injector) {
 
             @Override
-            protected Object value(Field field, TypeLiteral<?> fieldType, Annotation bindingAnnotation) {
+            protected boolean useGeneratedFactory() {
+                // generated factories know nothing about the decorated delegate
+                return false;
+            }
+
+            @Override
+            protected Object value(InjectableField injectableField) {
+                Field field = injectableField.getField();
+                TypeLiteral<?> fieldType = injectableField.getType();
+
                 // delegate (possibly) injected as Provider
                 if (injector.getPredicates().isProviderType(fieldType.getRawType())) {
 
@@ -62,8 +71,12 @@ class FieldInjectingDecoratorProvider<T> implements DecoratorProvider<T> {
                     return undecorated.get();
                 }
 
-                return super.value(field, fieldType, bindingAnnotation);
+                return super.value(injectableField);
             }
         };
     }
+
+    Class<? extends T> getImplementation() {
+        return implementation;
+    }
 }
@@ -19,17 +19,10 @@
 
 package io.bootique.di.spi;
 
-import io.bootique.di.Key;
-import io.bootique.di.TypeLiteral;
-
 import javax.inject.Provider;
-import java.lang.annotation.Annotation;
-import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.lang.reflect.Type;
-import java.lang.reflect.TypeVariable;
-import java.util.function.Predicate;
+
+import io.bootique.di.spi.FieldInjectionPlan.InjectableField;
 
 class FieldInjectingProvider<T> extends MemberInjectingProvider<T> {
 
@@ -38,77 +31,57 @@ class FieldInjectingProvider<T> extends MemberInjectingProvider<T> {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     protected void injectMembers(T object, Class<?> type) {
-
-        // bail on recursion stop condition
-        if (type == Object.class) {
+        GeneratedFactory<Object> factory = useGeneratedFactory()
+                ? injector.getGeneratedFactory((Class<Object>) type)
+                : null;
+        if (factory != null) {
+            injector.trace("Injecting fields of class %s with generated factory", type.getName());
+            factory.injectMembers(object, injector);
             return;
         }
 
-        injectMembers(object, type.getSuperclass());
-
-        Predicate<AccessibleObject> injectPredicate = injector.getPredicates().getInjectPredicate();
-
-        for (Field field : type.getDeclaredFields()) {
-            if(Modifier.isStatic(field.getModifiers())) {
-                // skip static fields completely
-                continue;
-            }
-
-            if (injectPredicate.test(field)) {
-                injectMember(object, field, getQualifier(field));
-            }
+        for (InjectableField field : injector.getFieldInjectionPlan(type).getFields()) {
+            injectMember(object, field);
         }
     }
 
-    private void injectMember(Object object, Field field, Annotation bindingAnnotation) {
+    private void injectMember(Object object, InjectableField injectableField) {
 
-        injector.trace(() -> "Injecting field '" + field.getName() + "' of class " + field.getDeclaringClass().getName());
+        Field field = injectableField.getField();
+        injector.trace("Injecting field '%s' of class %s", field.getName(), field.getDeclaringClass().getName());
 
-        TypeLiteral<?> fieldType = getFieldType(object, field);
-        Object value = value(field, fieldType, bindingAnnotation);
+        Object value = value(injectableField);
 
-        field.setAccessible(true);
         try {
-            field.set(object, value);
+            injectableField.getSetter().set(object, value);
         } catch (Exception e) {
             injector.throwException("Error injecting into field %s.%s of type %s"
                     , e, field.getDeclaringClass().getName(), field.getName(), field.getType().getName());
         }
     }
 
-    protected Object value(Field field, TypeLiteral<?> fieldType, Annotation bindingAnnotation) {
-        if (injector.getPredicates().isProviderType(fieldType.getRawType())) {
-            Type parameterType = GenericTypesUtils.getGenericParameterType(field.getGenericType());
+    /**
+     * @return whether field injection can be delegated to the generated factory of the object class, if any
+     */
+    protected boolean useGeneratedFactory() {
+        return true;
+    }
 
-            if (parameterType == null) {
+    protected Object value(InjectableField field) {
+        if (field.isProvider()) {
+            if (field.getKey() == null) {
                 injector.throwException("Provider field %s.%s must be parameterized to be usable for injection"
-                        , field.getDeclaringClass().getName(), field.getName());
+                        , field.getField().getDeclaringClass().getName(), field.getField().getName());
             }
 
-            return injector.getProvider(Key.get(TypeLiteral.of(parameterType), bindingAnnotation));
+            return injector.getProvider(field.getKey());
         } else {
-            Key<?> key = Key.get(fieldType, bindingAnnotation);
-            return injector.getInstanceWithCycleProtection(key);
+            return injector.getInstanceWithCycleProtection(field.getKey());
         }
     }
 
-    private TypeLiteral<?> getFieldType(Object object, Field field) {
-        Type genericType = field.getGenericType();
-        // field is defined as some generic type that should be provided by its defining class
-        if(genericType instanceof TypeVariable) {
-            Class<?> objectClass = object.getClass();
-            TypeLiteral<?> typeLiteral = GenericTypesUtils.resolveVariableType(objectClass, field, genericType);
-            if(typeLiteral == null) {
-                return injector.throwException("Unable to resolve type parameter %s for the field %s type %s "
-                        , genericType.getTypeName(), field.getName(), objectClass.getName());
-            }
-            return typeLiteral;
-        }
-
-        return TypeLiteral.of(genericType);
-    }
-
     @Override
     public String getName() {
         return "field injecting provider";
@@ -0,0 +1,171 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.Key;
+import io.bootique.di.TypeLiteral;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * An immutable list of injectable fields of a concrete class and all its superclasses, with all the reflection
+ * metadata (field types, qualifiers, binding keys and setters) resolved once. Plans are cached per class by the
+ * {@link DefaultInjector}, so that creating an instance only needs to run the plan.
+ *
+ * @see DefaultInjector#getFieldInjectionPlan(Class)
+ */
+class FieldInjectionPlan {
+
+    private final InjectableField[] fields;
+
+    private FieldInjectionPlan(InjectableField[] fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Collects injectable fields of a given type. Note that the plan must not reference the injector, as it is
+     * cached in a {@link ClassValue}.
+     */
+    static FieldInjectionPlan build(Class<?> type, DefaultInjector injector) {
+        List<InjectableField> fields = new ArrayList<>();
+        collectFields(type, type, injector, fields);
+        return new FieldInjectionPlan(fields.toArray(new InjectableField[0]));
+    }
+
+    private static void collectFields(Class<?> objectClass, Class<?> type, DefaultInjector injector, List<InjectableField> fields) {
+
+        // bail on recursion stop condition
+        if (type == Object.class || type == null) {
+            return;
+        }
+
+        collectFields(objectClass, type.getSuperclass(), injector, fields);
+
+        Predicate<AccessibleObject> injectPredicate = injector.getPredicates().getInjectPredicate();
+
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                // skip static fields completely
+                continue;
+            }
+
+            if (injectPredicate.test(field)) {
+                fields.add(createInjectableField(objectClass, field, injector));
+            }
+        }
+    }
+
+    private static InjectableField createInjectableField(Class<?> objectClass, Field field, DefaultInjector injector) {
+        Annotation qualifier = MemberInjectingProvider.getQualifier(injector, field.getAnnotations(), field);
+
+        TypeLiteral<?> fieldType = getFieldType(objectClass, field, injector);
+        boolean provider = injector.getPredicates().isProviderType(fieldType.getRawType());
+
+        Key<?> key;
+        if (provider) {
+            Type parameterType = GenericTypesUtils.getGenericParameterType(field.getGenericType());
+            // null key is an invalid non-parameterized provider, reported by the injecting provider
+            key = parameterType != null ? Key.get(TypeLiteral.of(parameterType), qualifier) : null;
+        } else {
+            key = Key.get(fieldType, qualifier);
+        }
+
+        field.setAccessible(true);
+        InvokerFactory.FieldSetter setter = injector.getInvokerFactory().fieldSetter(field);
+        return new InjectableField(field, setter, fieldType, qualifier, key, provider);
+    }
+
+    private static TypeLiteral<?> getFieldType(Class<?> objectClass, Field field, DefaultInjector injector) {
+        Type genericType = field.getGenericType();
+        // field is defined as some generic type that should be provided by its defining class
+        if (genericType instanceof TypeVariable) {
+            TypeLiteral<?> typeLiteral = GenericTypesUtils.resolveVariableType(objectClass, field, genericType);
+            if (typeLiteral == null) {
+                return injector.throwException("Unable to resolve type parameter %s for the field %s type %s "
+                        , genericType.getTypeName(), field.getName(), objectClass.getName());
+            }
+            return typeLiteral;
+        }
+
+        return TypeLiteral.of(genericType);
+    }
+
+    InjectableField[] getFields() {
+        return fields;
+    }
+
+    /**
+     * A single injectable field with its resolved type and binding key.
+     */
+    static final class InjectableField {
+
+        private final Field field;
+        private final InvokerFactory.FieldSetter setter;
+        private final TypeLiteral<?> type;
+        private final Annotation qualifier;
+        private final Key<?> key;
+        private final boolean provider;
+
+        InjectableField(Field field, InvokerFactory.FieldSetter setter, TypeLiteral<?> type, Annotation qualifier, Key<?> key, boolean provider) {
+            this.field = field;
+            this.setter = setter;
+            this.type = type;
+            this.qualifier = qualifier;
+            this.key = key;
+            this.provider = provider;
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        InvokerFactory.FieldSetter getSetter() {
+            return setter;
+        }
+
+        TypeLiteral<?> getType() {
+            return type;
+        }
+
+        Annotation getQualifier() {
+            return qualifier;
+        }
+
+        /**
+         * @return a key of the injected dependency. For the Provider fields this is a key of the provided object,
+         * or null if Provider type is not parameterized.
+         */
+        Key<?> getKey() {
+            return key;
+        }
+
+        boolean isProvider() {
+            return provider;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.Key;
+
+import java.util.Map;
+
+/**
+ * An immutable open-addressing hash table of bindings, built once the injector is fully configured. Lookups use
+ * linear probing over flat arrays, comparing cached key hashes before calling {@link Key#equals(Object)}.
+ *
+ * @see DefaultInjector.Options#FREEZE_BINDINGS
+ */
+class FrozenBindingTable {
+
+    private final Key<?>[] keys;
+    private final int[] hashes;
+    private final Binding<?>[] bindings;
+    private final int mask;
+    private final int size;
+
+    private FrozenBindingTable(int size) {
+        // keep load factor at or below 0.5 to make probe sequences short
+        int capacity = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1;
+        this.keys = new Key<?>[capacity];
+        this.hashes = new int[capacity];
+        this.bindings = new Binding<?>[capacity];
+        this.mask = capacity - 1;
+        this.size = size;
+    }
+
+    /**
+     * Creates a table of all complete bindings in the map, i.e. skipping declared bindings without a provider.
+     */
+    static FrozenBindingTable of(Map<Key<?>, Binding<?>> bindings) {
+        int size = 0;
+        for (Binding<?> binding : bindings.values()) {
+            if (binding.getOriginal() != null) {
+                size++;
+            }
+        }
+
+        FrozenBindingTable table = new FrozenBindingTable(size);
+        for (Map.Entry<Key<?>, Binding<?>> e : bindings.entrySet()) {
+            if (e.getValue().getOriginal() != null) {
+                table.insert(e.getKey(), e.getValue());
+            }
+        }
+        return table;
+    }
+
+    private void insert(Key<?> key, Binding<?> binding) {
+        int hash = key.hashCode();
+        int i = spread(hash) & mask;
+        while (keys[i] != null) {
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        hashes[i] = hash;
+        bindings[i] = binding;
+    }
+
+    /**
+     * @return binding for the key or null if the key is not in the table
+     */
+    Binding<?> get(Key<?> key) {
+        int hash = key.hashCode();
+        int i = spread(hash) & mask;
+
+        Key<?> candidate;
+        while ((candidate = keys[i]) != null) {
+            if (candidate == key || hashes[i] == hash && candidate.equals(key)) {
+                return bindings[i];
+            }
+            i = (i + 1) & mask;
+        }
+
+        return null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
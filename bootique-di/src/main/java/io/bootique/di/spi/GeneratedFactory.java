@@ -0,0 +1,50 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.Injector;
+
+/**
+ * A factory for a single concrete class that creates its instances and injects their fields without reflection.
+ * Implementations are generated at compile time by the "bootique-di-processor" annotation processor and are used by
+ * the injector only if enabled via {@link io.bootique.di.DIBootstrap.InjectorBuilder#enableGeneratedFactories()}.
+ * <p>
+ * A factory for class {@code com.example.Outer$Inner} must be named {@code com.example.Outer$Inner_BQFactory},
+ * must implement {@code GeneratedFactory<Outer.Inner>} directly and must have a public no-argument constructor.
+ *
+ * @param <T> type of the objects created by this factory
+ */
+public interface GeneratedFactory<T> {
+
+    /**
+     * Suffix of the generated factory class names.
+     */
+    String CLASS_NAME_SUFFIX = "_BQFactory";
+
+    /**
+     * Creates a new instance via an injectable constructor, resolving constructor arguments from the injector.
+     */
+    T newInstance(Injector injector);
+
+    /**
+     * Injects all injectable fields of a given object, including the fields declared in its superclasses.
+     */
+    void injectMembers(T object, Injector injector);
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.DIRuntimeException;
+
+/**
+ * A provider that creates instances of a class using its generated factory instead of the reflective constructor
+ * injection.
+ *
+ * @param <T> provided type
+ * @see GeneratedFactory
+ */
+class GeneratedFactoryProvider<T> implements NamedProvider<T> {
+
+    private final GeneratedFactory<T> factory;
+    private final Class<? extends T> implementation;
+    private final DefaultInjector injector;
+
+    GeneratedFactoryProvider(GeneratedFactory<T> factory, Class<? extends T> implementation, DefaultInjector injector) {
+        this.factory = factory;
+        this.implementation = implementation;
+        this.injector = injector;
+    }
+
+    @Override
+    public T get() {
+        injector.trace("Invoking %s", this);
+        try {
+            return factory.newInstance(injector);
+        } catch (DIRuntimeException e) {
+            // dependency resolution error, already reported
+            throw e;
+        } catch (Exception e) {
+            return injector.throwException("Error invoking %s", e, getName());
+        }
+    }
+
+    Class<? extends T> getImplementation() {
+        return implementation;
+    }
+
+    @Override
+    public String getName() {
+        return "generated factory of class '" + implementation.getName() + "'";
+    }
+}
@@ -21,58 +21,68 @@ package io.bootique.di.spi;
 
 import io.bootique.di.Key;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
- * A helper object that tracks the injection stack to prevent circular dependencies.
+ * Tracks the keys being resolved by a thread to prevent circular dependencies. The stack is array-backed, so push and
+ * pop don't allocate, and the cycle check compares cached key hashes before calling {@link Key#equals(Object)}.
+ * Not thread-safe, each thread has its own stack in its {@link ResolutionContext}.
  */
 class InjectionStack {
 
-    private final ThreadLocal<LinkedList<Key<?>>> stack;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Key<?>[] keys;
+    private int[] hashes;
+    private int size;
 
     InjectionStack() {
-        this.stack = new ThreadLocal<>();
+        this.keys = new Key<?>[INITIAL_CAPACITY];
+        this.hashes = new int[INITIAL_CAPACITY];
     }
 
-    void reset() {
-        List<Key<?>> localStack = stack.get();
-        if (localStack != null) {
-            localStack.clear();
-        }
-    }
+    /**
+     * @return false if the key is already on the stack, i.e. there is a dependency cycle
+     */
+    boolean push(Key<?> key) {
+        int hash = key.hashCode();
 
-    boolean push(Key<?> bindingKey) {
-        LinkedList<Key<?>> localStack = stack.get();
-        if (localStack == null) {
-            localStack = new LinkedList<>();
-            stack.set(localStack);
+        // the most recent keys are the most likely to form a cycle, so scan from the top
+        for (int i = size - 1; i >= 0; i--) {
+            if (hashes[i] == hash && (keys[i] == key || keys[i].equals(key))) {
+                return false;
+            }
         }
 
-        if (localStack.contains(bindingKey)) {
-            return false;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
         }
 
-        localStack.add(bindingKey);
+        keys[size] = key;
+        hashes[size] = hash;
+        size++;
         return true;
     }
 
     void pop() {
-        LinkedList<Key<?>> localStack = stack.get();
-        if (localStack != null) {
-            localStack.removeLast();
-        } else {
+        if (size == 0) {
             throw new IndexOutOfBoundsException("0");
         }
+
+        // don't retain keys of the finished resolutions
+        keys[--size] = null;
     }
 
     @Override
     public String toString() {
-        List<Key<?>> localStack = stack.get();
-        if (localStack != null) {
-            return String.valueOf(localStack);
-        } else {
-            return "[]";
+        StringBuilder buffer = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(keys[i]);
         }
+        return buffer.append(']').toString();
     }
 }
@@ -19,8 +19,7 @@
 
 package io.bootique.di.spi;
 
-import java.util.LinkedList;
-import java.util.function.Supplier;
+import java.util.Arrays;
 
 import io.bootique.di.InjectionTraceElement;
 import io.bootique.di.Key;
@@ -28,41 +27,114 @@ import io.bootique.di.Key;
 /**
  * Optional detailed trace of injection.
  * Can be used in dev environment to create more user-friendly messages in case of injection errors.
+ * <p>
+ * Trace doesn't allocate anything on successful resolution: it only records keys, message formats and raw format
+ * arguments in preallocated arrays. Messages and {@link InjectionTraceElement}s are created only when an error is
+ * reported. Not thread-safe, each thread has its own trace in its {@link ResolutionContext}.
  */
 class InjectionTrace {
 
-    private ThreadLocal<LinkedList<InjectionTraceElement>> stack;
+    static final int NO_INDEX = Integer.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Key<?>[] keys;
+    private String[] formats;
+    private int[] indexes;
+    private Object[] args1;
+    private Object[] args2;
+    private int size;
 
     InjectionTrace() {
-        this.stack = new ThreadLocal<>();
+        this.keys = new Key<?>[INITIAL_CAPACITY];
+        this.formats = new String[INITIAL_CAPACITY];
+        this.indexes = new int[INITIAL_CAPACITY];
+        this.args1 = new Object[INITIAL_CAPACITY];
+        this.args2 = new Object[INITIAL_CAPACITY];
     }
 
     void push(Key<?> key) {
-        getStack().push(new InjectionTraceElement(key));
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            formats = Arrays.copyOf(formats, capacity);
+            indexes = Arrays.copyOf(indexes, capacity);
+            args1 = Arrays.copyOf(args1, capacity);
+            args2 = Arrays.copyOf(args2, capacity);
+        }
+
+        keys[size] = key;
+        formats[size] = null;
+        size++;
     }
 
-    void updateMessage(Supplier<String> messageSupplier) {
-        InjectionTraceElement element = getStack().peekFirst();
-        if(element != null) {
-            element.setMessage(messageSupplier);
+    /**
+     * Records a message of the current trace element. Message is formatted only if the trace is reported.
+     *
+     * @param format {@link String#format(String, Object...)} message format
+     * @param index optional first format argument or {@link #NO_INDEX}
+     * @param arg1 format argument, {@link NamedProvider} arguments are replaced with their names
+     * @param arg2 format argument, {@link NamedProvider} arguments are replaced with their names
+     */
+    void updateMessage(String format, int index, Object arg1, Object arg2) {
+        if (size > 0) {
+            int i = size - 1;
+            formats[i] = format;
+            indexes[i] = index;
+            args1[i] = arg1;
+            args2[i] = arg2;
         }
     }
 
-    InjectionTraceElement pop() {
-        return getStack().pollFirst();
+    void pop() {
+        // trace may be already drained by an error report
+        if (size > 0) {
+            clear(--size);
+        }
     }
 
     int size() {
-        return getStack().size();
+        return size;
     }
 
-    private LinkedList<InjectionTraceElement> getStack() {
-        LinkedList<InjectionTraceElement> localStack = stack.get();
-        if(localStack == null) {
-            localStack = new LinkedList<>();
-            stack.set(localStack);
+    /**
+     * Builds elements of the current trace, starting from the most recent one, and clears the trace.
+     */
+    InjectionTraceElement[] drain() {
+        InjectionTraceElement[] elements = new InjectionTraceElement[size];
+        for (int i = 0; i < elements.length; i++) {
+            int pos = size - 1 - i;
+            InjectionTraceElement element = new InjectionTraceElement(keys[pos]);
+            if (formats[pos] != null) {
+                String message = message(pos);
+                element.setMessage(() -> message);
+            }
+            elements[i] = element;
+            clear(pos);
         }
-        return localStack;
+
+        size = 0;
+        return elements;
     }
 
+    private String message(int pos) {
+        Object arg1 = argument(args1[pos]);
+        Object arg2 = argument(args2[pos]);
+
+        // extra format arguments are ignored
+        return indexes[pos] == NO_INDEX
+                ? String.format(formats[pos], arg1, arg2)
+                : String.format(formats[pos], indexes[pos], arg1, arg2);
+    }
+
+    private static Object argument(Object arg) {
+        return arg instanceof NamedProvider ? ((NamedProvider<?>) arg).getName() : arg;
+    }
+
+    private void clear(int pos) {
+        keys[pos] = null;
+        formats[pos] = null;
+        args1[pos] = null;
+        args2[pos] = null;
+    }
 }
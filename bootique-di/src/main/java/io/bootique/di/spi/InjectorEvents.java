@@ -0,0 +1,244 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.Key;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import javax.inject.Provider;
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+
+/**
+ * Java Flight Recorder events of the injector. All the events are disabled by default and should be enabled in the
+ * recording settings, e.g. {@code <event name="io.bootique.di.SingletonCreated"><setting name="enabled">true</setting></event>}
+ * in a custom .jfc file.
+ * <p>
+ * Event classes are only referenced from this class, and callers check {@link #AVAILABLE} first, so the injector
+ * runs on a runtime linked without the {@code jdk.jfr} module. While an event is disabled, the cost of emitting it is
+ * a check of the event state.
+ */
+final class InjectorEvents {
+
+    static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    private static final String CATEGORY = "Bootique DI";
+
+    private InjectorEvents() {
+    }
+
+    static <T> T resolve(DefaultInjector injector, Key<T> key) {
+        KeyResolved event = new KeyResolved();
+        if (!event.isEnabled()) {
+            return injector.getProvider(key).get();
+        }
+
+        event.begin();
+        boolean failed = true;
+        try {
+            T instance = injector.getProvider(key).get();
+            failed = false;
+            return instance;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.key = key.toString();
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    static <T> T createSingleton(Provider<T> provider) {
+        SingletonCreated event = new SingletonCreated();
+        if (!event.isEnabled()) {
+            return provider.get();
+        }
+
+        event.begin();
+        T instance = null;
+        try {
+            instance = provider.get();
+            return instance;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.instanceClass = instance != null ? instance.getClass() : null;
+                event.provider = DIUtil.getProviderName(provider);
+                event.failed = instance == null;
+                event.commit();
+            }
+        }
+    }
+
+    static void dynamicBindingCreated(Key<?> key, Class<?> implementation) {
+        DynamicBindingCreated event = new DynamicBindingCreated();
+        if (event.shouldCommit()) {
+            event.key = key.toString();
+            event.implementation = implementation;
+            event.commit();
+        }
+    }
+
+    static void proxyCreated(Key<?> key, Class<?> proxyInterface) {
+        ProxyCreated event = new ProxyCreated();
+        if (event.shouldCommit()) {
+            event.key = key.toString();
+            event.proxyInterface = proxyInterface;
+            event.commit();
+        }
+    }
+
+    static void postScopeEvent(Object scope, Class<? extends Annotation> type, Collection<?> listeners, Runnable dispatch) {
+        ScopeEventDispatched event = new ScopeEventDispatched();
+        if (!event.isEnabled()) {
+            dispatch.run();
+            return;
+        }
+
+        // dispatch drops the listeners of collected objects, so count them beforehand
+        int listenerCount = listeners.size();
+        event.begin();
+        try {
+            dispatch.run();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.scope = scope.getClass().getName();
+                event.eventType = type;
+                event.listeners = listenerCount;
+                event.commit();
+            }
+        }
+    }
+
+    static void shutdown(int bindings, Runnable shutdown) {
+        InjectorShutdown event = new InjectorShutdown();
+        if (!event.isEnabled()) {
+            shutdown.run();
+            return;
+        }
+
+        event.begin();
+        try {
+            shutdown.run();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.bindings = bindings;
+                event.commit();
+            }
+        }
+    }
+
+    @Name("io.bootique.di.KeyResolved")
+    @Label("Key Resolved")
+    @Description("Injector lookup of an instance, including the creation of the instance and its dependencies")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    static class KeyResolved extends Event {
+
+        @Label("Key")
+        String key;
+
+        @Label("Failed")
+        boolean failed;
+    }
+
+    @Name("io.bootique.di.SingletonCreated")
+    @Label("Singleton Created")
+    @Description("Creation of a singleton instance, other threads requesting it are blocked for the duration")
+    @Category(CATEGORY)
+    @Enabled(false)
+    static class SingletonCreated extends Event {
+
+        @Label("Instance Class")
+        Class<?> instanceClass;
+
+        @Label("Provider")
+        String provider;
+
+        @Label("Failed")
+        boolean failed;
+    }
+
+    @Name("io.bootique.di.DynamicBindingCreated")
+    @Label("Dynamic Binding Created")
+    @Description("Binding created on demand for a key that was not bound explicitly")
+    @Category(CATEGORY)
+    @Enabled(false)
+    static class DynamicBindingCreated extends Event {
+
+        @Label("Key")
+        String key;
+
+        @Label("Implementation")
+        Class<?> implementation;
+    }
+
+    @Name("io.bootique.di.ProxyCreated")
+    @Label("Proxy Created")
+    @Description("Proxy created to break a circular dependency")
+    @Category(CATEGORY)
+    @Enabled(false)
+    static class ProxyCreated extends Event {
+
+        @Label("Key")
+        String key;
+
+        @Label("Proxy Interface")
+        Class<?> proxyInterface;
+    }
+
+    @Name("io.bootique.di.ScopeEventDispatched")
+    @Label("Scope Event Dispatched")
+    @Description("Scope event posted to the registered listeners")
+    @Category(CATEGORY)
+    @Enabled(false)
+    static class ScopeEventDispatched extends Event {
+
+        @Label("Scope")
+        String scope;
+
+        @Label("Event Type")
+        Class<?> eventType;
+
+        @Label("Listeners")
+        int listeners;
+    }
+
+    @Name("io.bootique.di.InjectorShutdown")
+    @Label("Injector Shutdown")
+    @Description("Injector shutdown, including the scope end events of the singleton and thread scopes")
+    @Category(CATEGORY)
+    @Enabled(false)
+    static class InjectorShutdown extends Event {
+
+        @Label("Bindings")
+        int bindings;
+    }
+}
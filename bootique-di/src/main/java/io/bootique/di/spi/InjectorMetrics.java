@@ -0,0 +1,73 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.Key;
+
+/**
+ * A pluggable collector of per-binding injector metrics: resolutions, created instances, creation failures and
+ * creation time. An instance is passed to {@link io.bootique.di.DIBootstrap.InjectorBuilder#withMetrics(InjectorMetrics)},
+ * and is called by the injector as bindings are created and resolved. {@link CountingInjectorMetrics} is a ready to
+ * use implementation that keeps the values in striped counters.
+ * <p>
+ * Recorders are called on the resolution path, possibly from many threads at once, so they must be thread-safe and
+ * cheap.
+ *
+ * @see CountingInjectorMetrics
+ * @see io.bootique.di.DIBootstrap.InjectorBuilder#withMetrics(InjectorMetrics)
+ */
+public interface InjectorMetrics {
+
+    /**
+     * Called once for each binding created by the injector, including dynamic bindings and bindings that replace
+     * overridden ones.
+     *
+     * @param key binding key
+     * @return a recorder of the binding events, called for the whole life of the binding
+     */
+    BindingRecorder bindingCreated(Key<?> key);
+
+    /**
+     * Receives events of a single binding.
+     */
+    interface BindingRecorder {
+
+        /**
+         * Called on each lookup of the binding via the injector, including lookups of an already created scoped
+         * instance. Repeated calls of a provider obtained from the injector are not counted.
+         */
+        void resolved();
+
+        /**
+         * Called after an instance is created by the binding.
+         *
+         * @param nanos creation time, including creation of the dependencies
+         * @param selfNanos creation time, excluding creation of the dependencies
+         */
+        void created(long nanos, long selfNanos);
+
+        /**
+         * Called after an instance creation failed with an exception.
+         *
+         * @param nanos time spent before the failure
+         */
+        void failed(long nanos);
+    }
+}
@@ -54,15 +54,20 @@ public class InjectorPredicates {
     private Function<Provider<?>, Provider<?>> providerFunction = Function.identity();
     private ExceptionProvider<?> exceptionProvider = DIRuntimeException::new;
 
+    // whether injection points are recognized differently from the code generated by the annotation processor
+    private boolean customInjectionPredicates;
+
     public InjectorPredicates() {
     }
 
     public void setInjectPredicate(Predicate<AccessibleObject> injectPredicate) {
         this.injectPredicate = injectPredicate;
+        this.customInjectionPredicates = true;
     }
 
     public void setProviderPredicate(Predicate<Type> providerPredicate) {
         this.providerPredicate = providerPredicate;
+        this.customInjectionPredicates = true;
     }
 
     public void setProvidesMethodPredicate(Predicate<Method> providesMethodPredicate) {
@@ -71,6 +76,7 @@ public class InjectorPredicates {
 
     public void setQualifierPredicate(Predicate<Class<? extends Annotation>> qualifierPredicate) {
         this.qualifierPredicate = qualifierPredicate;
+        this.customInjectionPredicates = true;
     }
 
     public void setSingletonPredicate(Predicate<AnnotatedElement> singletonPredicate) {
@@ -86,6 +92,13 @@ public class InjectorPredicates {
         this.exceptionProvider = exceptionProvider;
     }
 
+    /**
+     * @return whether any of the inject, provider or qualifier predicates was replaced
+     */
+    boolean hasCustomInjectionPredicates() {
+        return customInjectionPredicates;
+    }
+
     boolean isSingleton(AnnotatedElement object) {
         return singletonPredicate.test(object);
     }
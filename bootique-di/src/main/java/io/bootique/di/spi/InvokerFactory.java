@@ -0,0 +1,75 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * A strategy used by the injector to call constructors and methods and to set fields of the injected objects.
+ * Invokers are created once per class member and then reused for every injection.
+ *
+ * @see MethodHandleInvokerFactory
+ * @see ReflectionInvokerFactory
+ */
+interface InvokerFactory {
+
+    /**
+     * Creates an invoker for a given constructor. Constructor must be already made accessible by the caller.
+     */
+    <T> ConstructorInvoker<T> constructorInvoker(Constructor<T> constructor);
+
+    /**
+     * Creates an invoker for a given method. Method must be already made accessible by the caller.
+     */
+    MethodInvoker methodInvoker(Method method);
+
+    /**
+     * Creates a setter for a given field. Field must be already made accessible by the caller.
+     */
+    FieldSetter fieldSetter(Field field);
+
+    /**
+     * Invokes a constructor. Exceptions thrown by the constructor itself are wrapped in
+     * {@link java.lang.reflect.InvocationTargetException}, same as by the core reflection.
+     */
+    @FunctionalInterface
+    interface ConstructorInvoker<T> {
+        T newInstance(Object[] args) throws Exception;
+    }
+
+    /**
+     * Invokes a method. Target is ignored for static methods. Exceptions thrown by the method itself are wrapped in
+     * {@link java.lang.reflect.InvocationTargetException}, same as by the core reflection.
+     */
+    @FunctionalInterface
+    interface MethodInvoker {
+        Object invoke(Object target, Object[] args) throws Exception;
+    }
+
+    /**
+     * Sets a value of an instance field.
+     */
+    @FunctionalInterface
+    interface FieldSetter {
+        void set(Object target, Object value) throws Exception;
+    }
+}
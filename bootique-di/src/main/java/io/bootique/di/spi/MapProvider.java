@@ -20,6 +20,7 @@
 package io.bootique.di.spi;
 
 import javax.inject.Provider;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -40,7 +41,7 @@ class MapProvider<K, V> implements Provider<Map<K, V>> {
         Map<K, V> map = new HashMap<>();
 
         for (Entry<K, Provider<? extends V>> entry : providers.entrySet()) {
-            injector.trace(() -> "Resolve map key '" + entry.getKey() + "'");
+            injector.trace("Resolve map key '%s'", entry.getKey());
             map.put(entry.getKey(), entry.getValue().get());
         }
 
@@ -50,4 +51,8 @@ class MapProvider<K, V> implements Provider<Map<K, V>> {
     void put(K key, Provider<? extends V> provider) {
         providers.put(key, provider);
     }
+
+    Collection<Provider<? extends V>> getProviders() {
+        return providers.values();
+    }
 }
@@ -56,7 +56,19 @@ abstract class MemberInjectingProvider<T> implements NamedProvider<T> {
 
     abstract void injectMembers(T object, Class<?> aClass);
 
+    Provider<T> getDelegate() {
+        return delegate;
+    }
+
     Annotation getQualifier(Annotation[] annotations, AccessibleObject object) {
+        return getQualifier(injector, annotations, object);
+    }
+
+    Annotation getQualifier(AccessibleObject object) {
+        return getQualifier(object.getAnnotations(), object);
+    }
+
+    static Annotation getQualifier(DefaultInjector injector, Annotation[] annotations, AccessibleObject object) {
         Annotation bindingAnnotation = null;
         for(Annotation fieldAnnotation : annotations) {
             if(injector.getPredicates().isQualifierAnnotation(fieldAnnotation)) {
@@ -70,8 +82,4 @@ abstract class MemberInjectingProvider<T> implements NamedProvider<T> {
         }
         return bindingAnnotation;
     }
-
-    Annotation getQualifier(AccessibleObject object) {
-        return getQualifier(object.getAnnotations(), object);
-    }
 }
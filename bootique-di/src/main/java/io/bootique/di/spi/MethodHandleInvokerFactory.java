@@ -0,0 +1,117 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invoker factory that converts reflected members to method handles adapted to a generic signature. Each member is
+ * unreflected once, when its invoker is created, and access is checked at that point, so the calls don't repeat the
+ * access checks of the core reflection. Handles are held by the invoker instances, not by constants, so the JIT can't
+ * treat them as such. Members that can't be unreflected (e.g. final fields) fall back to the core reflection.
+ */
+class MethodHandleInvokerFactory implements InvokerFactory {
+
+    static final InvokerFactory INSTANCE = new MethodHandleInvokerFactory();
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType METHOD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final MethodHandles.Lookup lookup;
+
+    MethodHandleInvokerFactory() {
+        this.lookup = MethodHandles.lookup();
+    }
+
+    @Override
+    public <T> ConstructorInvoker<T> constructorInvoker(Constructor<T> constructor) {
+        MethodHandle handle;
+        try {
+            handle = lookup.unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(CONSTRUCTOR_TYPE);
+        } catch (IllegalAccessException e) {
+            return ReflectionInvokerFactory.INSTANCE.constructorInvoker(constructor);
+        }
+
+        return args -> {
+            try {
+                @SuppressWarnings("unchecked")
+                T result = (T) (Object) handle.invokeExact(args);
+                return result;
+            } catch (Throwable th) {
+                throw new InvocationTargetException(th);
+            }
+        };
+    }
+
+    @Override
+    public MethodInvoker methodInvoker(Method method) {
+        MethodHandle handle;
+        try {
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            return ReflectionInvokerFactory.INSTANCE.methodInvoker(method);
+        }
+
+        if (Modifier.isStatic(method.getModifiers())) {
+            // unify with instance methods, static methods simply ignore the target
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+
+        MethodHandle genericHandle = handle
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(METHOD_TYPE);
+
+        return (target, args) -> {
+            try {
+                return (Object) genericHandle.invokeExact(target, args);
+            } catch (Throwable th) {
+                throw new InvocationTargetException(th);
+            }
+        };
+    }
+
+    @Override
+    public FieldSetter fieldSetter(Field field) {
+        MethodHandle handle;
+        try {
+            handle = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            return ReflectionInvokerFactory.INSTANCE.fieldSetter(field);
+        }
+
+        return (target, value) -> {
+            try {
+                handle.invokeExact(target, value);
+            } catch (Throwable th) {
+                throw new InvocationTargetException(th);
+            }
+        };
+    }
+}
@@ -24,13 +24,13 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import javax.inject.Provider;
 
 import io.bootique.di.Key;
 import io.bootique.di.TypeLiteral;
+import io.bootique.di.spi.MethodInjectionPlan.InjectableMethod;
 
 /**
  * Injection provider that performs injection into object methods annotate with {@link javax.inject.Inject}
@@ -51,13 +51,8 @@ class MethodInjectingProvider<T> extends MemberInjectingProvider<T> {
 
     @Override
     protected void injectMembers(T object, Class<?> type) {
-        Map<String, List<Method>> methods = collectMethods(type, new LinkedHashMap<>());
-        for (List<Method> methodList : methods.values()){
-            methodList.forEach(method -> {
-                if (injector.getPredicates().hasInjectAnnotation(method)) {
-                    injectMember(object, method);
-                }
-            });
+        for (InjectableMethod method : injector.getMethodInjectionPlan(type).getMethods()) {
+            injectMember(object, method);
         }
     }
 
@@ -156,16 +151,16 @@ class MethodInjectingProvider<T> extends MemberInjectingProvider<T> {
      * Do the injection into method
      *
      * @param object to perform inject at
-     * @param method to inject
+     * @param injectableMethod to inject
      */
-    private void injectMember(Object object, Method method) {
+    private void injectMember(Object object, InjectableMethod injectableMethod) {
 
+        Method method = injectableMethod.getMethod();
         Object[] values = arguments(method);
 
-        injector.trace(() -> "Injecting method '" + method.getName() + "()' of class " + method.getDeclaringClass().getName());
-        method.setAccessible(true);
+        injector.trace("Injecting method '%s()' of class %s", method.getName(), method.getDeclaringClass().getName());
         try {
-            method.invoke(object, values);
+            injectableMethod.getInvoker().invoke(object, values);
         } catch (Exception e) {
             injector.throwException("Error injecting into method '%s()' of class '%s'"
                     , e, method.getName(), method.getDeclaringClass().getName());
@@ -183,15 +178,12 @@ class MethodInjectingProvider<T> extends MemberInjectingProvider<T> {
         Object[] result = new Object[parameterTypes.length];
         Annotation[][] parameterAnnotations = method.getParameterAnnotations();
 
-        InjectionStack stack = injector.getInjectionStack();
-
         for (int i = 0; i < parameterTypes.length; i++) {
             Type parameterType = parameterTypes[i];
             Annotation bindingAnnotation = getQualifier(parameterAnnotations[i], method);
 
-            int idx = i;
-            injector.trace(() -> "Get argument " + idx + " for method '" + method.getName() + "()'" +
-                    " of class '" + method.getDeclaringClass().getName() + "'");
+            injector.trace("Get argument %d for method '%s()' of class '%s'",
+                    i, method.getName(), method.getDeclaringClass().getName());
 
             if (injector.getPredicates().isProviderType(parameterClasses[i])) {
                 parameterType = GenericTypesUtils.getGenericParameterType(parameterType);
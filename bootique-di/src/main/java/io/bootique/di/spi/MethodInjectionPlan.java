@@ -0,0 +1,87 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable list of injectable methods of a concrete class and all its superclasses (excluding overridden
+ * methods), each with its invoker created once. Plans are cached per class by the {@link DefaultInjector}.
+ *
+ * @see DefaultInjector#getMethodInjectionPlan(Class)
+ */
+class MethodInjectionPlan {
+
+    private final InjectableMethod[] methods;
+
+    private MethodInjectionPlan(InjectableMethod[] methods) {
+        this.methods = methods;
+    }
+
+    /**
+     * Collects injectable methods of a given type. Note that the plan must not reference the injector, as it is
+     * cached in a {@link ClassValue}.
+     */
+    static MethodInjectionPlan build(Class<?> type, DefaultInjector injector) {
+        List<InjectableMethod> result = new ArrayList<>();
+
+        Map<String, List<Method>> methods = MethodInjectingProvider.collectMethods(type, new LinkedHashMap<>());
+        for (List<Method> methodList : methods.values()) {
+            for (Method method : methodList) {
+                if (injector.getPredicates().hasInjectAnnotation(method)) {
+                    method.setAccessible(true);
+                    result.add(new InjectableMethod(method, injector.getInvokerFactory().methodInvoker(method)));
+                }
+            }
+        }
+
+        return new MethodInjectionPlan(result.toArray(new InjectableMethod[0]));
+    }
+
+    InjectableMethod[] getMethods() {
+        return methods;
+    }
+
+    /**
+     * A single injectable method with its invoker.
+     */
+    static final class InjectableMethod {
+
+        private final Method method;
+        private final InvokerFactory.MethodInvoker invoker;
+
+        InjectableMethod(Method method, InvokerFactory.MethodInvoker invoker) {
+            this.method = method;
+            this.invoker = invoker;
+        }
+
+        Method getMethod() {
+            return method;
+        }
+
+        InvokerFactory.MethodInvoker getInvoker() {
+            return invoker;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.BeforeScopeEnd;
+import io.bootique.di.DIRuntimeException;
+import io.bootique.di.Scope;
+
+import javax.inject.Provider;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A scope that recycles instances of a binding through a bounded pool, something in between a singleton and
+ * "no scope". Useful for heavy objects that are not thread-safe, but are expensive to create and inject on every call.
+ * Each scoped binding gets its own lock-free pool of up to "maxIdle" instances.
+ * <p>
+ * An instance is taken from the pool (or is created if the pool is empty) and is returned to it either explicitly,
+ * with a {@link Lease}, or, if the scope is tied to a {@link UnitOfWorkScope}, at the end of the current unit of work.
+ * Instances taken outside a lease and outside a unit of work are never returned. Instances that don't fit in the
+ * pool, as well as idle instances on {@link #shutdown()}, get their {@link BeforeScopeEnd} methods called.
+ * <p>
+ * Pooled instances are reused as is, so they must not keep any state between the uses.
+ * <p>
+ * Usage: <pre>
+ *     PooledScope pooled = new PooledScope(16);
+ *     binder.bind(Parser.class).to(DefaultParser.class).in(pooled);
+ *     ...
+ *     try (PooledScope.Lease&lt;Parser&gt; parser = pooled.lease(parserProvider)) {
+ *         parser.get().parse(...);
+ *     }
+ * </pre>
+ */
+public class PooledScope implements Scope {
+
+    private final int maxIdle;
+    private final UnitOfWorkScope unitOfWorkScope;
+    private final Collection<PooledScopeProvider<?>> providers;
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a scope with pools of a given size, with instances returned to the pools via {@link Lease}.
+     */
+    public PooledScope(int maxIdle) {
+        this(maxIdle, null);
+    }
+
+    /**
+     * Creates a scope with pools of a given size, with instances returned to the pools via {@link Lease} or at the
+     * end of the current unit of work of the given scope.
+     */
+    public PooledScope(int maxIdle, UnitOfWorkScope unitOfWorkScope) {
+        if (maxIdle <= 0) {
+            throw new DIRuntimeException("Pool size must be positive: %d", maxIdle);
+        }
+
+        this.maxIdle = maxIdle;
+        this.unitOfWorkScope = unitOfWorkScope;
+        this.providers = new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    public <T> Provider<T> scope(Provider<T> unscoped) {
+        PooledScopeProvider<T> provider = new PooledScopeProvider<>(unscoped);
+        providers.add(provider);
+        return provider;
+    }
+
+    /**
+     * Takes an instance from the pool of the provider. The provider must be the one created by this scope, i.e.
+     * a provider of a binding in this scope.
+     */
+    public <T> Lease<T> lease(Provider<T> provider) {
+        Objects.requireNonNull(provider, "Null provider");
+
+        if (!(provider instanceof PooledScopeProvider) || ((PooledScopeProvider<?>) provider).scope() != this) {
+            throw new DIRuntimeException("Provider (%s) is not scoped by this PooledScope",
+                    DIUtil.getProviderName(provider));
+        }
+
+        PooledScopeProvider<T> pooledProvider = (PooledScopeProvider<T>) provider;
+        return new Lease<>(pooledProvider, pooledProvider.borrow());
+    }
+
+    /**
+     * Ends all the idle instances in the pools. Instances returned after the shutdown are ended right away.
+     */
+    public void shutdown() {
+        shutdown = true;
+
+        DIRuntimeException failure = null;
+        for (PooledScopeProvider<?> provider : providers) {
+            failure = provider.drain(failure);
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * An instance taken from the pool, that is returned back on close.
+     */
+    public static final class Lease<T> implements AutoCloseable {
+
+        private final PooledScopeProvider<T> provider;
+        private T instance;
+
+        private Lease(PooledScopeProvider<T> provider, T instance) {
+            this.provider = provider;
+            this.instance = instance;
+        }
+
+        public T get() {
+            T localInstance = instance;
+            if (localInstance == null) {
+                throw new DIRuntimeException("Lease is already closed");
+            }
+            return localInstance;
+        }
+
+        /**
+         * Returns the instance to the pool. Closing a lease that was already closed has no effect.
+         */
+        @Override
+        public void close() {
+            T localInstance = instance;
+            if (localInstance != null) {
+                instance = null;
+                provider.release(localInstance);
+            }
+        }
+    }
+
+    private class PooledScopeProvider<T> implements Provider<T> {
+
+        private final Provider<T> delegate;
+        private final AtomicReferenceArray<T> idle;
+
+        PooledScopeProvider(Provider<T> delegate) {
+            this.delegate = delegate;
+            this.idle = new AtomicReferenceArray<>(maxIdle);
+        }
+
+        PooledScope scope() {
+            return PooledScope.this;
+        }
+
+        @Override
+        public T get() {
+            T instance = borrow();
+
+            UnitOfWorkScope.UnitOfWork unit = unitOfWorkScope != null ? unitOfWorkScope.activeUnit() : null;
+            if (unit != null) {
+                unit.onEnd(() -> release(instance));
+            }
+
+            return instance;
+        }
+
+        T borrow() {
+
+            int start = probe();
+            for (int i = 0; i < maxIdle; i++) {
+                int index = (start + i) % maxIdle;
+
+                // read before writing to avoid contention on the empty slots
+                if (idle.get(index) != null) {
+                    T instance = idle.getAndSet(index, null);
+                    if (instance != null) {
+                        return instance;
+                    }
+                }
+            }
+
+            T instance = delegate.get();
+            if (instance == null) {
+                throw new DIRuntimeException("Underlying provider (%s) returned NULL instance"
+                        , DIUtil.getProviderName(delegate));
+            }
+
+            return instance;
+        }
+
+        void release(T instance) {
+
+            if (!shutdown) {
+                int start = probe();
+                for (int i = 0; i < maxIdle; i++) {
+                    int index = (start + i) % maxIdle;
+                    if (idle.get(index) == null && idle.compareAndSet(index, null, instance)) {
+                        return;
+                    }
+                }
+            }
+
+            // pool is full or is shut down
+            DIRuntimeException failure = BeforeScopeEndHandlers.DEFAULT.invoke(instance, null);
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        DIRuntimeException drain(DIRuntimeException failure) {
+            for (int i = 0; i < maxIdle; i++) {
+                T instance = idle.getAndSet(i, null);
+                if (instance != null) {
+                    failure = BeforeScopeEndHandlers.DEFAULT.invoke(instance, failure);
+                }
+            }
+            return failure;
+        }
+
+        // spreads threads over the pool slots
+        private int probe() {
+            return (int) (Thread.currentThread().getId() % maxIdle);
+        }
+    }
+}
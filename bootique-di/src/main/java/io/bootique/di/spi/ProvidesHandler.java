@@ -105,12 +105,24 @@ class ProvidesHandler {
     }
 
     private <T> Binding<T> createBinding(Key<T> key, Object module, Method method) {
-        return new Binding<>(key, createProvider(key, module, method), createScope(method), false);
+        return new Binding<>(key, createProvider(key, module, method), createScope(method), false, injector.createBindingStats(key));
     }
 
     private <T> Provider<T> createProvider(Key<T> key, Object module, Method method) {
-        Provider<?>[] argumentProviders = createArgumentProviders(method);
-        Provider<T> provider = new ProvidesMethodProvider<>(injector, argumentProviders, method, module);
+        Type[] params = method.getGenericParameterTypes();
+        Annotation[][] paramAnnotations = method.getParameterAnnotations();
+        int len = params.length;
+        Key<?>[] argumentKeys = new Key<?>[len];
+        boolean[] providerArguments = new boolean[len];
+
+        for (int i = 0; i < len; i++) {
+            Annotation qualifier = extractQualifier(method, paramAnnotations[i]);
+            argumentKeys[i] = createKey(params[i], qualifier);
+            providerArguments[i] = isProviderType(params[i]);
+        }
+
+        Provider<?>[] argumentProviders = createArgumentProviders(argumentKeys, providerArguments);
+        Provider<T> provider = new ProvidesMethodProvider<>(injector, argumentProviders, argumentKeys, providerArguments, method, module);
         return injector.wrapProvider(key, provider);
     }
 
@@ -123,18 +135,15 @@ class ProvidesHandler {
         return injector.getDefaultScope();
     }
 
-    private Provider<?>[] createArgumentProviders(Method method) {
+    private Provider<?>[] createArgumentProviders(Key<?>[] argumentKeys, boolean[] providerArguments) {
 
-        Type[] params = method.getGenericParameterTypes();
-        Annotation[][] paramAnnotations = method.getParameterAnnotations();
-        int len = params.length;
+        int len = argumentKeys.length;
         Provider<?>[] providers = new Provider[len];
 
         for (int i = 0; i < len; i++) {
-            Annotation qualifier = extractQualifier(method, paramAnnotations[i]);
-            Key<?> key = createKey(params[i], qualifier);
+            Key<?> key = argumentKeys[i];
 
-            if (isProviderType(params[i])) {
+            if (providerArguments[i]) {
                 // will resolve to provider of provider
                 providers[i] = () -> injector.getProvider(key);
             } else {
@@ -147,19 +156,26 @@ class ProvidesHandler {
     }
 
     /**
-     * Separate class just for better error reporting.
+     * Separate class for better error reporting and binding introspection.
      * @param <T> provided type
      */
-    private static class ProvidesMethodProvider<T> implements NamedProvider<T> {
+    static class ProvidesMethodProvider<T> implements NamedProvider<T> {
         private final DefaultInjector injector;
         private final Provider<?>[] argumentProviders;
+        private final Key<?>[] argumentKeys;
+        private final boolean[] providerArguments;
         private final Method method;
+        private final InvokerFactory.MethodInvoker invoker;
         private final Object module;
 
-        private ProvidesMethodProvider(DefaultInjector injector, Provider<?>[] argumentProviders, Method method, Object module) {
+        private ProvidesMethodProvider(DefaultInjector injector, Provider<?>[] argumentProviders, Key<?>[] argumentKeys,
+                                       boolean[] providerArguments, Method method, Object module) {
             this.injector = injector;
             this.argumentProviders = argumentProviders;
+            this.argumentKeys = argumentKeys;
+            this.providerArguments = providerArguments;
             this.method = method;
+            this.invoker = injector.getInvokerFactory().methodInvoker(method);
             this.module = module;
         }
 
@@ -169,15 +185,14 @@ class ProvidesHandler {
             Object[] arguments = new Object[len];
 
             for (int i = 0; i < len; i++) {
-                final int idx = i;
-                injector.trace(() -> "Get argument " + idx + " for " + getName());
+                injector.trace("Get argument %d for %s", i, this);
                 arguments[i] = argumentProviders[i].get();
             }
 
-            injector.trace(() -> "Invoking " + getName());
+            injector.trace("Invoking %s", this);
             try {
                 @SuppressWarnings("unchecked")
-                T result = (T) method.invoke(module, arguments);
+                T result = (T) invoker.invoke(module, arguments);
                 return result;
             } catch (Exception e) {
                 injector.throwException("Error invoking %s", e, getName());
@@ -185,6 +200,21 @@ class ProvidesHandler {
             }
         }
 
+        Method getMethod() {
+            return method;
+        }
+
+        /**
+         * @return keys of the method arguments. For the Provider arguments this is a key of the provided object.
+         */
+        Key<?>[] getArgumentKeys() {
+            return argumentKeys;
+        }
+
+        boolean isProviderArgument(int index) {
+            return providerArguments[index];
+        }
+
         @Override
         public String getName() {
             return String.format("provider method '%s()' of module '%s'", method.getName(), module.getClass().getName());
@@ -20,6 +20,7 @@
 package io.bootique.di.spi;
 
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import io.bootique.di.Key;
@@ -38,8 +39,12 @@ class ProxyInvocationHandler<T> implements InvocationHandler {
 
     @Override
     public Object invoke(Object proxy, Method method, Object... args) throws Throwable {
-        method.setAccessible(true);
-        return method.invoke(getInstance(), args);
+        try {
+            return injector.getProxyMethodInvoker(method).invoke(getInstance(), args);
+        } catch (InvocationTargetException e) {
+            // rethrow the original exception, as if the method was called on the instance directly
+            throw e.getCause();
+        }
     }
 
     T getInstance() {
@@ -0,0 +1,48 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Invoker factory that uses core reflection. Used when method handles are disabled, and as a fallback for members
+ * that can't be unreflected to method handles.
+ */
+class ReflectionInvokerFactory implements InvokerFactory {
+
+    static final InvokerFactory INSTANCE = new ReflectionInvokerFactory();
+
+    @Override
+    public <T> ConstructorInvoker<T> constructorInvoker(Constructor<T> constructor) {
+        return constructor::newInstance;
+    }
+
+    @Override
+    public MethodInvoker methodInvoker(Method method) {
+        return method::invoke;
+    }
+
+    @Override
+    public FieldSetter fieldSetter(Field field) {
+        return field::set;
+    }
+}
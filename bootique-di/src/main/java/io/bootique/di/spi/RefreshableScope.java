@@ -0,0 +1,221 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.BeforeScopeEnd;
+import io.bootique.di.DIRuntimeException;
+import io.bootique.di.Scope;
+
+import javax.inject.Provider;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A singleton-like scope with instances that can expire after a given time-to-live or be invalidated on demand.
+ * A stale instance is rebuilt in background by the provided executor, and until the new instance is ready, the callers
+ * keep getting the old one, so they never wait for a refresh. Only the very first instance of a binding is created
+ * in the calling thread.
+ * <p>
+ * When an instance is replaced, its {@link BeforeScopeEnd} methods are called. If a refresh fails, the old instance is
+ * kept, and the refresh is retried on the next call. Current instances are ended on {@link #shutdown()}.
+ * <p>
+ * Usage: <pre>
+ *     RefreshableScope refreshable = new RefreshableScope(Duration.ofMinutes(5), executor);
+ *     binder.bind(RoutingTable.class).toProvider(RoutingTableProvider.class).in(refreshable);
+ *     ...
+ *     // e.g. on a config change
+ *     refreshable.invalidateAll();
+ * </pre>
+ */
+public class RefreshableScope implements Scope {
+
+    private final long ttlNanos;
+    private final Executor executor;
+    private final Collection<RefreshableScopeProvider<?>> providers;
+
+    // instances created before the current generation are stale
+    private final AtomicLong generation;
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a scope with instances that never expire, but can be invalidated with {@link #invalidateAll()}.
+     */
+    public RefreshableScope(Executor executor) {
+        this(null, executor);
+    }
+
+    /**
+     * Creates a scope with instances expiring after a given time-to-live. Null "ttl" means no expiration.
+     */
+    public RefreshableScope(Duration ttl, Executor executor) {
+        if (ttl != null && (ttl.isNegative() || ttl.isZero())) {
+            throw new DIRuntimeException("TTL must be positive: %s", ttl);
+        }
+
+        this.ttlNanos = ttl != null ? ttl.toNanos() : 0L;
+        this.executor = Objects.requireNonNull(executor, "Null executor");
+        this.providers = new ConcurrentLinkedQueue<>();
+        this.generation = new AtomicLong();
+    }
+
+    @Override
+    public <T> Provider<T> scope(Provider<T> unscoped) {
+        RefreshableScopeProvider<T> provider = new RefreshableScopeProvider<>(unscoped);
+        providers.add(provider);
+        return provider;
+    }
+
+    /**
+     * Marks all the current instances of this scope as stale. Each of them is refreshed in background on the next call
+     * to its provider.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Ends all the current instances of this scope. Instances refreshed after the shutdown are ended right away, and
+     * the providers that have no current instance fail instead of creating one that would never be ended.
+     */
+    public void shutdown() {
+        shutdown = true;
+
+        DIRuntimeException failure = null;
+        for (RefreshableScopeProvider<?> provider : providers) {
+            failure = provider.end(failure);
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static final class Entry<T> {
+
+        final T instance;
+        final long generation;
+        final long createdAt;
+
+        Entry(T instance, long generation, long createdAt) {
+            this.instance = instance;
+            this.generation = generation;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private class RefreshableScopeProvider<T> implements Provider<T> {
+
+        private final Provider<T> delegate;
+        private final AtomicBoolean refreshing;
+        private volatile Entry<T> entry;
+
+        RefreshableScopeProvider(Provider<T> delegate) {
+            this.delegate = delegate;
+            this.refreshing = new AtomicBoolean();
+        }
+
+        @Override
+        public T get() {
+            Entry<T> localEntry = entry;
+            if (localEntry == null) {
+                return create();
+            }
+
+            if (isStale(localEntry) && !shutdown && refreshing.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::refresh);
+                } catch (RuntimeException e) {
+                    // e.g. a rejected execution, will retry on the next call
+                    refreshing.set(false);
+                }
+            }
+
+            return localEntry.instance;
+        }
+
+        private synchronized T create() {
+            Entry<T> localEntry = entry;
+            if (localEntry == null) {
+
+                // checked under the lock, so an instance created before the shutdown is ended by it
+                if (shutdown) {
+                    throw new DIRuntimeException("Scope is shutdown, can't create an instance with provider (%s)"
+                            , DIUtil.getProviderName(delegate));
+                }
+
+                localEntry = entry = newEntry();
+            }
+            return localEntry.instance;
+        }
+
+        private void refresh() {
+            try {
+                Entry<T> newEntry = newEntry();
+                Entry<T> oldEntry;
+                synchronized (this) {
+                    oldEntry = entry;
+                    entry = newEntry;
+                }
+
+                // the scope may have been shut down while the new instance was created
+                DIRuntimeException failure = shutdown ? end(null) : null;
+                if (oldEntry != null) {
+                    failure = BeforeScopeEndHandlers.DEFAULT.invoke(oldEntry.instance, failure);
+                }
+
+                if (failure != null) {
+                    throw failure;
+                }
+            } finally {
+                refreshing.set(false);
+            }
+        }
+
+        private Entry<T> newEntry() {
+            // capture the generation before creating an instance, so that invalidation during creation is not lost
+            long localGeneration = generation.get();
+            T instance = delegate.get();
+            if (instance == null) {
+                throw new DIRuntimeException("Underlying provider (%s) returned NULL instance"
+                        , DIUtil.getProviderName(delegate));
+            }
+            return new Entry<>(instance, localGeneration, System.nanoTime());
+        }
+
+        private boolean isStale(Entry<T> entry) {
+            return entry.generation != generation.get()
+                    || (ttlNanos > 0 && System.nanoTime() - entry.createdAt >= ttlNanos);
+        }
+
+        synchronized DIRuntimeException end(DIRuntimeException failure) {
+            Entry<T> localEntry = entry;
+            if (localEntry != null) {
+                entry = null;
+                failure = BeforeScopeEndHandlers.DEFAULT.invoke(localEntry.instance, failure);
+            }
+            return failure;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+/**
+ * Per-thread state of the instance resolution: the stack of keys used for cycle detection and an optional injection
+ * trace. Both are kept in a single object, so that resolution code can get all of its thread-local state with one
+ * {@link ThreadLocal} lookup.
+ *
+ * @see DefaultInjector#getResolutionContext()
+ */
+class ResolutionContext {
+
+    private final InjectionStack injectionStack;
+    private final InjectionTrace injectionTrace;
+
+    // time spent creating dependencies of the object being created, used by the instrumentation to get its self time
+    private long dependenciesNanos;
+
+    ResolutionContext(boolean traceEnabled) {
+        this.injectionStack = new InjectionStack();
+        this.injectionTrace = traceEnabled ? new InjectionTrace() : null;
+    }
+
+    InjectionStack getInjectionStack() {
+        return injectionStack;
+    }
+
+    /**
+     * @return injection trace or null if trace is disabled
+     */
+    InjectionTrace getInjectionTrace() {
+        return injectionTrace;
+    }
+
+    long getDependenciesNanos() {
+        return dependenciesNanos;
+    }
+
+    void setDependenciesNanos(long dependenciesNanos) {
+        this.dependenciesNanos = dependenciesNanos;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A strategy of carrying a scope context (e.g. the current unit of work) over to the code executed within this
+ * context. Allows scopes to work on top of thread locals, inheritable thread locals or, on the JDK versions that
+ * have it, {@code java.lang.ScopedValue}.
+ * <p>
+ * Carriers built on a "run with a value" primitive, such as {@code ScopedValue}, only need to implement
+ * {@link #get()} and {@link #callWith(Object, Callable)}:
+ * <pre>
+ *     static final ScopedValue&lt;UnitOfWorkScope.UnitOfWork&gt; UNIT = ScopedValue.newInstance();
+ *
+ *     class ScopedValueCarrier implements ScopeCarrier&lt;UnitOfWorkScope.UnitOfWork&gt; {
+ *         public UnitOfWorkScope.UnitOfWork get() {
+ *             return UNIT.orElse(null);
+ *         }
+ *
+ *         public &lt;R&gt; R callWith(UnitOfWorkScope.UnitOfWork unit, Callable&lt;R&gt; body) throws Exception {
+ *             return ScopedValue.where(UNIT, unit).call(body::call);
+ *         }
+ *     }
+ * </pre>
+ * Such carriers are inherited by the child threads of a structured task scope without any copying.
+ *
+ * @param <C> type of the scope context
+ */
+public interface ScopeCarrier<C> {
+
+    /**
+     * Returns a carrier that keeps the context in a thread local. The context is visible only to the thread
+     * that set it.
+     */
+    static <C> ScopeCarrier<C> threadLocal() {
+        return new ThreadLocalScopeCarrier<>(new ThreadLocal<>());
+    }
+
+    /**
+     * Returns a carrier that keeps the context in an inheritable thread local. Threads started within the context,
+     * including virtual threads, see the same context object, it is shared and not copied.
+     */
+    static <C> ScopeCarrier<C> inheritableThreadLocal() {
+        return new ThreadLocalScopeCarrier<>(new InheritableThreadLocal<>());
+    }
+
+    /**
+     * Returns a context visible to the current thread, or null if there's none.
+     */
+    C get();
+
+    /**
+     * Calls the body with the context made visible to it, restoring the previous context after the call.
+     */
+    <R> R callWith(C context, Callable<R> body) throws Exception;
+
+    /**
+     * Makes the context visible to the current thread until it is replaced. Null context removes the current one.
+     * This is optional, carriers that can only bind a context for the duration of a call should throw
+     * {@link UnsupportedOperationException}.
+     */
+    default void bind(C context) {
+        throw new UnsupportedOperationException(getClass().getName() + " can't bind a scope context outside of a call");
+    }
+}
@@ -31,18 +31,27 @@ public class ScopeEventBinding {
 
     private final WeakReference<Object> objectReference;
     private final Method eventHandlerMethod;
+    private final InvokerFactory.MethodInvoker eventHandlerInvoker;
     private final int argWidth;
 
     public ScopeEventBinding(Object object, Method eventHandlerMethod) {
+        this(object, eventHandlerMethod, reflectionInvoker(eventHandlerMethod));
+    }
+
+    ScopeEventBinding(Object object, Method eventHandlerMethod, InvokerFactory.MethodInvoker eventHandlerInvoker) {
 
         // store weak references for objects to avoid retaining them when they go out of
         // scope
         this.objectReference = new WeakReference<>(object);
         this.eventHandlerMethod = eventHandlerMethod;
+        this.eventHandlerInvoker = eventHandlerInvoker;
         this.argWidth = eventHandlerMethod.getParameterTypes().length;
+    }
 
+    private static InvokerFactory.MethodInvoker reflectionInvoker(Method eventHandlerMethod) {
         // allow public methods of non-public classes to be annotated
         eventHandlerMethod.setAccessible(true);
+        return ReflectionInvokerFactory.INSTANCE.methodInvoker(eventHandlerMethod);
     }
 
     public Object getObject() {
@@ -57,7 +66,7 @@ public class ScopeEventBinding {
         }
 
         try {
-            eventHandlerMethod.invoke(object, invocationArguments(eventArgs));
+            eventHandlerInvoker.invoke(object, invocationArguments(eventArgs));
         } catch (Exception e) {
             throw new DIRuntimeException(
                     "Error invoking event method %s",
@@ -45,7 +45,7 @@ class SetProvider<T> implements Provider<Set<T>> {
         int i = 0;
         for (Provider<? extends T> provider : providers) {
             int idx = i++;
-            injector.trace(() -> "Resolving set element " + idx);
+            injector.trace("Resolving set element %d", idx);
             T value = provider.get();
             if (!set.add(value)) {
                 injector.throwException("Found duplicated value '%s' in set %s.", value, bindingKey);
@@ -59,4 +59,8 @@ class SetProvider<T> implements Provider<Set<T>> {
         providers.add(provider);
     }
 
+    Collection<Provider<? extends T>> getProviders() {
+        return providers;
+    }
+
 }
@@ -0,0 +1,268 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.Key;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Timings of the injector startup: configuration and provider method scanning of each module, application of
+ * decorators, optional validation and creation of each service marked with
+ * {@link io.bootique.di.ScopeBuilder#initOnStartup()}. Available from {@link DefaultInjector#getStartupReport()} if
+ * startup profiling is enabled. {@link #toString()} formats the report as a table suitable for logging.
+ *
+ * @see io.bootique.di.DIBootstrap.InjectorBuilder#profileStartup()
+ */
+public class StartupReport {
+
+    private final long totalNanos;
+    private final List<ModuleTiming> modules;
+    private final long decoratorsNanos;
+    private final long validationNanos;
+    private final long earlySetupNanos;
+    private final List<ServiceTiming> services;
+
+    private StartupReport(Builder builder, long totalNanos) {
+        this.totalNanos = totalNanos;
+        this.modules = Collections.unmodifiableList(builder.modules);
+        this.decoratorsNanos = builder.decoratorsNanos;
+        this.validationNanos = builder.validationNanos;
+        this.earlySetupNanos = builder.earlySetupNanos;
+
+        // slowest first
+        builder.services.sort(Comparator.comparingLong(ServiceTiming::getTotalNanos).reversed());
+        this.services = Collections.unmodifiableList(builder.services);
+    }
+
+    /**
+     * @return total time of the injector creation
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return module timings in the order modules were configured
+     */
+    public List<ModuleTiming> getModules() {
+        return modules;
+    }
+
+    public long getDecoratorsNanos() {
+        return decoratorsNanos;
+    }
+
+    /**
+     * @return time of the binding validation, zero if validation on build is disabled
+     */
+    public long getValidationNanos() {
+        return validationNanos;
+    }
+
+    /**
+     * @return total time of the services initialization on startup
+     */
+    public long getEarlySetupNanos() {
+        return earlySetupNanos;
+    }
+
+    /**
+     * @return timings of services initialized on startup, the slowest first
+     */
+    public List<ServiceTiming> getServices() {
+        return services;
+    }
+
+    @Override
+    public String toString() {
+        List<String[]> rows = new ArrayList<>();
+        for (ModuleTiming module : modules) {
+            rows.add(row("configure", module.getModuleType().getName(), module.getConfigureNanos(), -1));
+            rows.add(row("provides scan", module.getModuleType().getName(), module.getProvidesScanNanos(), -1));
+        }
+        rows.add(row("decorators", "", decoratorsNanos, -1));
+        if (validationNanos > 0) {
+            rows.add(row("validation", "", validationNanos, -1));
+        }
+        rows.add(row("early setup", "", earlySetupNanos, -1));
+        for (ServiceTiming service : services) {
+            rows.add(row("service", service.getKey().toString(), service.getTotalNanos(), service.getSelfNanos()));
+        }
+        rows.add(row("total", "", totalNanos, -1));
+
+        String[] header = {"Phase", "Name", "Total, ms", "Self, ms"};
+        int[] widths = new int[header.length];
+        for (int i = 0; i < header.length; i++) {
+            widths[i] = header[i].length();
+        }
+        for (String[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                widths[i] = Math.max(widths[i], row[i].length());
+            }
+        }
+
+        StringBuilder out = new StringBuilder("Injector startup report:\n");
+        appendRow(out, header, widths);
+        for (int i = 0; i < widths.length; i++) {
+            out.append(i > 0 ? "-+-" : "").append("-".repeat(widths[i]));
+        }
+        out.append('\n');
+        for (String[] row : rows) {
+            appendRow(out, row, widths);
+        }
+        return out.toString();
+    }
+
+    private static String[] row(String phase, String name, long totalNanos, long selfNanos) {
+        return new String[]{phase, name, millis(totalNanos), selfNanos >= 0 ? millis(selfNanos) : ""};
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    private static void appendRow(StringBuilder out, String[] row, int[] widths) {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                out.append(" | ");
+            }
+            // text columns aligned left, numbers right
+            String format = i < 2 ? "%-" + widths[i] + "s" : "%" + widths[i] + "s";
+            out.append(String.format(format, row[i]));
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Startup timing of a single module.
+     */
+    public static final class ModuleTiming {
+
+        private final Class<?> moduleType;
+        private final long configureNanos;
+        private final long providesScanNanos;
+
+        ModuleTiming(Class<?> moduleType, long configureNanos, long providesScanNanos) {
+            this.moduleType = moduleType;
+            this.configureNanos = configureNanos;
+            this.providesScanNanos = providesScanNanos;
+        }
+
+        public Class<?> getModuleType() {
+            return moduleType;
+        }
+
+        /**
+         * @return time spent in the module "configure()" method
+         */
+        public long getConfigureNanos() {
+            return configureNanos;
+        }
+
+        /**
+         * @return time spent looking up and binding module provider methods
+         */
+        public long getProvidesScanNanos() {
+            return providesScanNanos;
+        }
+    }
+
+    /**
+     * Creation timing of a single service initialized on startup.
+     */
+    public static final class ServiceTiming {
+
+        private final Key<?> key;
+        private final long totalNanos;
+        private final long selfNanos;
+
+        ServiceTiming(Key<?> key, long totalNanos, long selfNanos) {
+            this.key = key;
+            this.totalNanos = totalNanos;
+            this.selfNanos = selfNanos;
+        }
+
+        public Key<?> getKey() {
+            return key;
+        }
+
+        /**
+         * @return service creation time, including creation of its dependencies not created before
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return service creation time, excluding creation of its dependencies
+         */
+        public long getSelfNanos() {
+            return selfNanos;
+        }
+    }
+
+    /**
+     * Collects timings while the injector is created.
+     */
+    static class Builder {
+
+        private final long startNanos;
+        private final List<ModuleTiming> modules;
+        private final List<ServiceTiming> services;
+        private long decoratorsNanos;
+        private long validationNanos;
+        private long earlySetupNanos;
+
+        Builder() {
+            this.startNanos = System.nanoTime();
+            this.modules = new ArrayList<>();
+            this.services = new ArrayList<>();
+        }
+
+        void module(Class<?> moduleType, long configureNanos, long providesScanNanos) {
+            modules.add(new ModuleTiming(moduleType, configureNanos, providesScanNanos));
+        }
+
+        void decorators(long nanos) {
+            this.decoratorsNanos = nanos;
+        }
+
+        void validation(long nanos) {
+            this.validationNanos = nanos;
+        }
+
+        void earlySetup(long nanos) {
+            this.earlySetupNanos = nanos;
+        }
+
+        void service(Key<?> key, BindingStats stats) {
+            services.add(new ServiceTiming(key, stats.getCreationNanos(), stats.getSelfCreationNanos()));
+        }
+
+        StartupReport build() {
+            return new StartupReport(this, System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Scope carrier built on a thread local, either a regular or an inheritable one.
+ */
+class ThreadLocalScopeCarrier<C> implements ScopeCarrier<C> {
+
+    private final ThreadLocal<C> context;
+
+    ThreadLocalScopeCarrier(ThreadLocal<C> context) {
+        this.context = context;
+    }
+
+    @Override
+    public C get() {
+        return context.get();
+    }
+
+    @Override
+    public <R> R callWith(C context, Callable<R> body) throws Exception {
+        C previous = this.context.get();
+        bind(context);
+        try {
+            return body.call();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    @Override
+    public void bind(C context) {
+        if (context != null) {
+            this.context.set(context);
+        } else {
+            // don't leave empty entries in the thread local maps of the pooled threads
+            this.context.remove();
+        }
+    }
+}
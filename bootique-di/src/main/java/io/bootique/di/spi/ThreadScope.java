@@ -0,0 +1,41 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import javax.inject.Provider;
+
+/**
+ * A scope that keeps one instance of a binding per thread. Useful for the objects that are expensive to create and are
+ * not thread-safe, e.g. parsers or formatters. Instances are registered for the scope events the same way as in the
+ * {@link DefaultScope}, so their {@link io.bootique.di.BeforeScopeEnd} methods are called on the injector shutdown.
+ * <p>
+ * Instances of the threads that have already finished are not retained by the scope. Once such instance is garbage
+ * collected, its event registrations are pruned on the next registration in this scope, so thread churn doesn't make
+ * them pile up. This also means that {@link io.bootique.di.BeforeScopeEnd} methods are only called for the instances
+ * that are still reachable at the injector shutdown, i.e. the instances of the live threads and those referenced
+ * elsewhere.
+ */
+class ThreadScope extends DefaultScope {
+
+    @Override
+    public <T> Provider<T> scope(Provider<T> unscoped) {
+        return new ThreadScopeProvider<>(this, unscoped);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.DIRuntimeException;
+
+import javax.inject.Provider;
+
+/**
+ * A provider that caches an instance of the underlying provider per thread.
+ */
+class ThreadScopeProvider<T> implements Provider<T> {
+
+    private final Provider<T> delegate;
+    private final DefaultScope scope;
+
+    // replaced on scope end, so that no thread sees its old instance anymore. Values of the other threads stay in their
+    // thread-local maps until those threads are done or the maps clean up stale entries
+    private volatile ThreadLocal<T> instances;
+
+    ThreadScopeProvider(DefaultScope scope, Provider<T> delegate) {
+        this.scope = scope;
+        this.delegate = delegate;
+        this.instances = new ThreadLocal<>();
+
+        scope.addScopeEventListener(this);
+    }
+
+    @Override
+    public T get() {
+        ThreadLocal<T> localInstances = instances;
+        T instance = localInstances.get();
+        if (instance == null) {
+            instance = delegate.get();
+            if (instance == null) {
+                throw new DIRuntimeException("Underlying provider (%s) returned NULL instance"
+                        , DIUtil.getProviderName(delegate));
+            }
+
+            localInstances.set(instance);
+            scope.addScopeEventListener(instance);
+        }
+
+        return instance;
+    }
+
+    @AfterScopeEnd
+    public void afterScopeEnd() {
+        instances = new ThreadLocal<>();
+    }
+}
@@ -43,7 +43,9 @@ class TraceableProvider<T> implements Provider<T> {
 
     @Override
     public T get() {
-        injector.tracePush(key);
+        // trace is bound to the thread, so it is safe to hold on to it for the duration of the call
+        InjectionTrace trace = injector.getResolutionContext().getInjectionTrace();
+        trace.push(key);
         T result;
         try {
             result = delegate.get();
@@ -54,7 +56,7 @@ class TraceableProvider<T> implements Provider<T> {
             // throw early here, to trace this error with more details
             injector.throwException("Underlying provider (%s) returned NULL instance", DIUtil.getProviderName(delegate));
         }
-        injector.tracePop();
+        trace.pop();
         return result;
     }
 
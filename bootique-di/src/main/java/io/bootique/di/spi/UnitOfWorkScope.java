@@ -0,0 +1,363 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.BeforeScopeEnd;
+import io.bootique.di.DIRuntimeException;
+import io.bootique.di.Scope;
+
+import javax.inject.Provider;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A scope for short units of work, e.g. requests or jobs. A unit of work is started explicitly with {@link #begin()}
+ * on the current thread or is run with {@link #call(Callable)}, and all the scoped instances created within it are
+ * shared until it is ended. On end, all the {@link BeforeScopeEnd} methods of these instances are called in bulk, in
+ * the reverse order of their creation.
+ * <p>
+ * The current unit is carried to the code by a {@link ScopeCarrier}, a thread local by default. With a carrier
+ * inherited by the child threads (e.g. an inheritable thread local or a {@code ScopedValue}), a unit and its instances
+ * are shared by all the threads working on it. Instances are created without locking the unit, so threads that
+ * request the same missing instance concurrently may each create it. Only one of these instances is kept, the others
+ * are ended right away.
+ * <p>
+ * Unlike {@link DefaultScope}, this scope doesn't register per-instance event listeners. Each unit of work keeps its
+ * instances in a small array indexed by the ordinal of the scoped binding, so the cost of the scope is a single
+ * array lookup per call.
+ * <p>
+ * Usage: <pre>
+ *     UnitOfWorkScope requestScope = new UnitOfWorkScope();
+ *     binder.bind(RequestContext.class).to(DefaultRequestContext.class).in(requestScope);
+ *     ...
+ *     try (UnitOfWorkScope.UnitOfWork unit = requestScope.begin()) {
+ *         ...
+ *     }
+ *
+ *     // or, with any carrier
+ *     requestScope.run(() -&gt; ...);
+ * </pre>
+ */
+public class UnitOfWorkScope implements Scope {
+
+    private static final Object[] NO_INSTANCES = new Object[0];
+    private static final VarHandle INSTANCES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final AtomicInteger ordinals;
+    private final ScopeCarrier<UnitOfWork> carrier;
+
+    /**
+     * Creates a scope that keeps the current unit of work in a thread local.
+     */
+    public UnitOfWorkScope() {
+        this(ScopeCarrier.threadLocal());
+    }
+
+    /**
+     * Creates a scope that uses a custom carrier for the current unit of work.
+     */
+    public UnitOfWorkScope(ScopeCarrier<UnitOfWork> carrier) {
+        this.ordinals = new AtomicInteger();
+        this.carrier = Objects.requireNonNull(carrier, "Null carrier");
+    }
+
+    /**
+     * Starts a new unit of work on the current thread. If there's another unit already active on this thread, it is
+     * suspended until the new unit is ended. Requires a carrier that supports {@link ScopeCarrier#bind(Object)}.
+     */
+    public UnitOfWork begin() {
+        UnitOfWork unit = new UnitOfWork(carrier.get());
+        carrier.bind(unit);
+        return unit;
+    }
+
+    /**
+     * Calls the work within a new unit of work, ending the unit after the call.
+     */
+    public <R> R call(Callable<R> work) throws Exception {
+        UnitOfWork unit = new UnitOfWork(null);
+        try {
+            return carrier.callWith(unit, work);
+        } finally {
+            unit.endInstances();
+        }
+    }
+
+    /**
+     * Runs the work within a new unit of work, ending the unit after the run.
+     */
+    public void run(Runnable work) {
+        try {
+            call(() -> {
+                work.run();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            // can't happen, Runnable doesn't throw checked exceptions
+            throw new DIRuntimeException("Error running unit of work", e);
+        }
+    }
+
+    /**
+     * Returns whether there is an active unit of work visible to the current thread.
+     */
+    public boolean isActive() {
+        return carrier.get() != null;
+    }
+
+    @Override
+    public <T> Provider<T> scope(Provider<T> unscoped) {
+        return new UnitOfWorkScopeProvider<>(this, unscoped, ordinals.getAndIncrement());
+    }
+
+    /**
+     * Returns a unit of work visible to the current thread or null if there's none.
+     */
+    UnitOfWork activeUnit() {
+        return carrier.get();
+    }
+
+    UnitOfWork currentUnit() {
+        UnitOfWork unit = carrier.get();
+        if (unit == null) {
+            throw new DIRuntimeException("No active unit of work on the current thread, call UnitOfWorkScope.begin() first");
+        }
+        return unit;
+    }
+
+    /**
+     * A single unit of work of the {@link UnitOfWorkScope}. A unit may be shared by several threads if the carrier
+     * passes it to the child threads, but it should be ended by the thread that started it.
+     */
+    public final class UnitOfWork implements AutoCloseable {
+
+        private final UnitOfWork suspended;
+
+        // scoped instances indexed by the binding ordinal, published with release semantics, so they can be read
+        // without locking. Also the same instances in the order of creation, guarded by the unit lock.
+        private volatile Object[] instances;
+        private Object[] created;
+        private int createdCount;
+        private List<Runnable> endActions;
+        private volatile boolean ended;
+
+        private UnitOfWork(UnitOfWork suspended) {
+            this.suspended = suspended;
+            // ordinals are allocated sequentially, so the array size is bound by the number of scoped bindings
+            this.instances = new Object[ordinals.get()];
+            this.created = NO_INSTANCES;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T get(int ordinal, Provider<T> provider) {
+
+            Object[] local = instances;
+            if (ordinal < local.length) {
+                Object instance = INSTANCES.getAcquire(local, ordinal);
+                if (instance != null) {
+                    return (T) instance;
+                }
+            }
+
+            return create(ordinal, provider);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T create(int ordinal, Provider<T> provider) {
+
+            if (ended) {
+                throw new DIRuntimeException("Unit of work has already ended");
+            }
+
+            // created without holding the unit lock, so that threads sharing the unit don't wait for each other's
+            // instances, and an instance depending on an object that is being created on another thread and needs
+            // an instance of this unit can't deadlock. Threads racing for the same instance each call the provider,
+            // the first one to publish its instance wins.
+            T instance = provider.get();
+            if (instance == null) {
+                throw new DIRuntimeException("Underlying provider (%s) returned NULL instance"
+                        , DIUtil.getProviderName(provider));
+            }
+
+            Object published = publish(ordinal, instance);
+            if (published == instance) {
+                return instance;
+            }
+
+            // the instance lost the race or the unit has ended in the meantime, so it's not scoped and is ended now
+            DIRuntimeException failure = BeforeScopeEndHandlers.DEFAULT.invoke(instance, null);
+            if (published == null) {
+                DIRuntimeException ended = new DIRuntimeException("Unit of work has already ended");
+                if (failure != null) {
+                    ended.addSuppressed(failure);
+                }
+                throw ended;
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+
+            return (T) published;
+        }
+
+        /**
+         * Publishes a created instance, unless another one was published first. The lock is only held for the
+         * array updates.
+         *
+         * @return the instance in the unit after the call or null if the unit has ended
+         */
+        private synchronized Object publish(int ordinal, Object instance) {
+
+            if (ended) {
+                return null;
+            }
+
+            Object[] local = instances;
+            if (ordinal >= local.length) {
+                local = instances = Arrays.copyOf(local, Math.max(ordinal + 1, ordinals.get()));
+            }
+
+            Object witness = INSTANCES.compareAndExchangeRelease(local, ordinal, null, instance);
+            if (witness != null) {
+                return witness;
+            }
+
+            if (createdCount == created.length) {
+                created = Arrays.copyOf(created, Math.max(4, createdCount * 2));
+            }
+            created[createdCount++] = instance;
+            return instance;
+        }
+
+        /**
+         * Registers an action to run when this unit of work ends, after the {@link BeforeScopeEnd} methods of its
+         * instances are called. Used by other scopes that tie their instances to a unit of work.
+         */
+        synchronized void onEnd(Runnable action) {
+
+            if (ended) {
+                throw new DIRuntimeException("Unit of work has already ended");
+            }
+
+            if (endActions == null) {
+                endActions = new ArrayList<>(2);
+            }
+            endActions.add(action);
+        }
+
+        /**
+         * Ends this unit of work, calling {@link BeforeScopeEnd} methods of all its instances. All the methods are
+         * called even if some of them fail, the first failure is rethrown after that. Ending a unit that was already
+         * ended has no effect.
+         */
+        public void end() {
+
+            if (ended) {
+                return;
+            }
+
+            if (carrier.get() != this) {
+                throw new DIRuntimeException("Unit of work can only be ended by the thread that started it, " +
+                        "after all the units started later are ended");
+            }
+
+            carrier.bind(suspended);
+            endInstances();
+        }
+
+        void endInstances() {
+
+            Object[] toEnd;
+            int toEndCount;
+            List<Runnable> actions;
+
+            synchronized (this) {
+                if (ended) {
+                    return;
+                }
+
+                ended = true;
+                toEnd = created;
+                toEndCount = createdCount;
+                instances = NO_INSTANCES;
+                created = NO_INSTANCES;
+                createdCount = 0;
+                actions = endActions;
+                endActions = null;
+            }
+
+            DIRuntimeException failure = null;
+            for (int i = toEndCount - 1; i >= 0; i--) {
+                failure = BeforeScopeEndHandlers.DEFAULT.invoke(toEnd[i], failure);
+            }
+
+            if (actions != null) {
+                for (Runnable action : actions) {
+                    try {
+                        action.run();
+                    } catch (RuntimeException e) {
+                        DIRuntimeException actionFailure = new DIRuntimeException("Error ending unit of work", e);
+                        if (failure == null) {
+                            failure = actionFailure;
+                        } else {
+                            failure.addSuppressed(actionFailure);
+                        }
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public void close() {
+            end();
+        }
+    }
+
+    private static class UnitOfWorkScopeProvider<T> implements Provider<T> {
+
+        private final UnitOfWorkScope scope;
+        private final Provider<T> delegate;
+        private final int ordinal;
+
+        UnitOfWorkScopeProvider(UnitOfWorkScope scope, Provider<T> delegate, int ordinal) {
+            this.scope = scope;
+            this.delegate = delegate;
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public T get() {
+            return scope.currentUnit().get(ordinal, delegate);
+        }
+    }
+}
@@ -19,9 +19,15 @@
 
 package io.bootique.di;
 
+import io.bootique.di.mock.MockImplementation1;
+import io.bootique.di.mock.MockImplementation2_Generated;
+import io.bootique.di.mock.MockInterface1;
+import io.bootique.di.mock.MockInterface2;
+import io.bootique.di.spi.GeneratedFactory;
 import org.junit.jupiter.api.Test;
 
 import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -76,6 +82,195 @@ public class InjectorOptionsIT {
         assertNotSame(service1, service2);
     }
 
+    @Test
+    public void generatedFactoriesEnabled() {
+        Injector injector = DIBootstrap.injectorBuilder(b -> {
+                    b.bind(MockInterface1.class).to(MockImplementation1.class);
+                    b.bind(MockInterface2.class).to(MockImplementation2_Generated.class);
+                    b.bind(Service.class).to(Service_Impl1.class);
+                })
+                .enableGeneratedFactories()
+                .build();
+
+        MockImplementation2_Generated service = (MockImplementation2_Generated) injector.getInstance(MockInterface2.class);
+        assertEquals("altered_MyName", service.getAlteredName());
+        assertTrue(service.isCreatedByFactory());
+        assertTrue(service.isInjectedByFactory());
+
+        // class without a generated factory
+        Consumer1 consumer = injector.getInstance(Consumer1.class);
+        assertInstanceOf(Service_Impl1.class, consumer.service);
+    }
+
+    @Test
+    public void generatedFactoriesDisabled() {
+        Injector injector = DIBootstrap.injectorBuilder(b -> {
+                    b.bind(MockInterface1.class).to(MockImplementation1.class);
+                    b.bind(MockInterface2.class).to(MockImplementation2_Generated.class);
+                })
+                .build();
+
+        MockImplementation2_Generated service = (MockImplementation2_Generated) injector.getInstance(MockInterface2.class);
+        assertEquals("altered_MyName", service.getAlteredName());
+        assertFalse(service.isCreatedByFactory());
+        assertFalse(service.isInjectedByFactory());
+    }
+
+    @Test
+    public void generatedFactories_InstanceBinding() {
+        MockImplementation2_Generated instance = new MockImplementation2_Generated();
+        Injector injector = DIBootstrap.injectorBuilder(b -> {
+                    b.bind(MockInterface1.class).to(MockImplementation1.class);
+                    b.bind(MockInterface2.class).toInstance(instance);
+                })
+                .enableGeneratedFactories()
+                .build();
+
+        assertSame(instance, injector.getInstance(MockInterface2.class));
+        assertEquals("altered_MyName", instance.getAlteredName());
+        assertFalse(instance.isCreatedByFactory());
+        assertTrue(instance.isInjectedByFactory());
+    }
+
+    @Test
+    public void generatedFactoryOfOtherType() {
+        Injector injector = DIBootstrap.injectorBuilder().enableGeneratedFactories().build();
+
+        // a class named like a factory of Mismatched, but creating another type, must be ignored
+        assertInstanceOf(Mismatched.class, injector.getInstance(Mismatched.class));
+    }
+
+    @Test
+    public void generatedFactories_CustomPredicates() {
+        DIRuntimeException e = assertThrows(DIRuntimeException.class, () -> DIBootstrap.injectorBuilder()
+                .enableGeneratedFactories()
+                .withInjectAnnotationPredicate(o -> o.isAnnotationPresent(Inject.class))
+                .build());
+        assertTrue(e.getMessage().startsWith("Generated factories can't be used"), e.getMessage());
+
+        assertThrows(DIRuntimeException.class, () -> DIBootstrap.injectorBuilder()
+                .enableGeneratedFactories()
+                .withQualifierPredicate(a -> false)
+                .build());
+
+        // predicates that don't affect the generated code are fine
+        assertNotNull(DIBootstrap.injectorBuilder()
+                .enableGeneratedFactories()
+                .withProvidesMethodPredicate(m -> false)
+                .build());
+    }
+
+    @Test
+    public void frozenBindings() {
+        Injector injector = DIBootstrap.injectorBuilder(b -> {
+                    b.bind(Service.class).to(Service_Impl1.class).inSingletonScope();
+                    b.bind(Key.get(Service.class, "other")).to(Service_Impl1.class);
+                })
+                .freezeBindings()
+                .build();
+
+        Service service = injector.getInstance(Service.class);
+        assertInstanceOf(Service_Impl1.class, service);
+        assertSame(service, injector.getInstance(Service.class));
+        assertNotSame(service, injector.getInstance(Key.get(Service.class, "other")));
+
+        // dynamic bindings are still allowed
+        Consumer1 consumer = injector.getInstance(Consumer1.class);
+        assertSame(service, consumer.service);
+
+        injector.shutdown();
+        assertThrows(DIRuntimeException.class, () -> injector.getInstance(Service.class));
+    }
+
+    @Test
+    public void freezeBindings_LookupDuringShutdown() {
+        Injector injector = DIBootstrap.injectorBuilder(b -> {
+                    b.bind(Service.class).to(Service_Impl1.class).inSingletonScope();
+                    b.bind(ShutdownListener.class).inSingletonScope();
+                })
+                .freezeBindings()
+                .build();
+
+        ShutdownListener listener = injector.getInstance(ShutdownListener.class);
+        injector.shutdown();
+
+        // scopes are being shut down, so bindings must not be served anymore
+        assertInstanceOf(DIRuntimeException.class, listener.lookupError);
+    }
+
+    @Test
+    public void parallelEarlySetup() {
+        SharedDependency.created.set(0);
+        Eager1.created.set(0);
+        Eager2.created.set(0);
+
+        Injector injector = DIBootstrap.injectorBuilder(b -> {
+                    b.bind(SharedDependency.class).inSingletonScope();
+                    b.bind(Eager1.class).initOnStartup();
+                    b.bind(Eager2.class).initOnStartup();
+                    b.bind(Key.get(Service.class, "eager")).to(Service_Impl1.class).initOnStartup();
+                })
+                .parallelEarlySetup()
+                .build();
+
+        assertEquals(1, SharedDependency.created.get());
+        assertEquals(1, Eager1.created.get());
+        assertEquals(1, Eager2.created.get());
+        assertSame(injector.getInstance(Eager1.class).dependency, injector.getInstance(Eager2.class).dependency);
+    }
+
+    @Test
+    public void parallelEarlySetup_ContextClassLoader() {
+        ClassLoader contextClassLoader = new ClassLoader(getClass().getClassLoader()) {
+        };
+
+        Thread current = Thread.currentThread();
+        ClassLoader oldContextClassLoader = current.getContextClassLoader();
+        current.setContextClassLoader(contextClassLoader);
+        try {
+            Injector injector = DIBootstrap.injectorBuilder(b -> {
+                        b.bind(ContextAware1.class).initOnStartup();
+                        b.bind(ContextAware2.class).initOnStartup();
+                    })
+                    .parallelEarlySetup()
+                    .build();
+
+            assertSame(contextClassLoader, injector.getInstance(ContextAware1.class).contextClassLoader);
+            assertSame(contextClassLoader, injector.getInstance(ContextAware2.class).contextClassLoader);
+        } finally {
+            current.setContextClassLoader(oldContextClassLoader);
+        }
+    }
+
+    @Test
+    public void parallelEarlySetup_Failure() {
+        DIRuntimeException e = assertThrows(DIRuntimeException.class, () -> DIBootstrap.injectorBuilder(b -> {
+                    b.bind(Eager1.class).initOnStartup();
+                    b.bind(Service.class).toProviderInstance(() -> {
+                        throw new DIRuntimeException("Eager failure");
+                    }).initOnStartup();
+                })
+                .parallelEarlySetup()
+                .build());
+
+        assertEquals("Eager failure", e.getMessage());
+    }
+
+    @Test
+    public void validateOnBuild() {
+        BQModule module = b -> b.bind(Consumer1.class);
+
+        // no problems until the consumer is requested
+        Injector injector = DIBootstrap.injectorBuilder(module).build();
+        assertThrows(DIRuntimeException.class, () -> injector.getInstance(Consumer1.class));
+
+        DIRuntimeException e = assertThrows(DIRuntimeException.class, () -> DIBootstrap.injectorBuilder(module)
+                .validateOnBuild()
+                .build());
+        assertTrue(e.getMessage().startsWith("Injector validation failed with 1 problem(s)"), e.getMessage());
+        assertTrue(e.getMessage().contains("field " + Consumer1.class.getName() + ".service"), e.getMessage());
+    }
+
     interface Service {
         String doIt();
     }
@@ -91,4 +286,73 @@ public class InjectorOptionsIT {
         @Inject
         Service service;
     }
+
+    static class ShutdownListener {
+        @Inject
+        Injector injector;
+
+        Exception lookupError;
+
+        @BeforeScopeEnd
+        public void beforeScopeEnd() {
+            try {
+                injector.getInstance(Service.class);
+            } catch (Exception e) {
+                lookupError = e;
+            }
+        }
+    }
+
+    public static class Mismatched {
+    }
+
+    public static class Mismatched_BQFactory implements GeneratedFactory<Service_Impl1> {
+
+        @Override
+        public Service_Impl1 newInstance(Injector injector) {
+            return new Service_Impl1();
+        }
+
+        @Override
+        public void injectMembers(Service_Impl1 object, Injector injector) {
+        }
+    }
+
+    static class SharedDependency {
+        static final AtomicInteger created = new AtomicInteger();
+
+        SharedDependency() {
+            created.incrementAndGet();
+        }
+    }
+
+    static class Eager1 {
+        static final AtomicInteger created = new AtomicInteger();
+
+        @Inject
+        SharedDependency dependency;
+
+        Eager1() {
+            created.incrementAndGet();
+        }
+    }
+
+    static class Eager2 {
+        static final AtomicInteger created = new AtomicInteger();
+
+        @Inject
+        SharedDependency dependency;
+
+        Eager2() {
+            created.incrementAndGet();
+        }
+    }
+
+    static class ContextAware1 {
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    }
+
+    static class ContextAware2 {
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    }
 }
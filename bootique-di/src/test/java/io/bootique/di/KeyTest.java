@@ -206,6 +206,14 @@ public class KeyTest {
                 key2.toString());
     }
 
+    @Test
+    public void classKeysAreShared() {
+        assertSame(Key.get(String.class), Key.get(String.class));
+        assertSame(Key.get(String.class), Key.get(String.class, ""));
+        assertEquals(Key.get(String.class), Key.get(TypeLiteral.of(String.class)));
+        assertNotSame(Key.get(String.class, "a"), Key.get(String.class, "a"));
+    }
+
     @Qualifier
     @Documented
     @Retention(RetentionPolicy.RUNTIME)
@@ -199,6 +199,14 @@ public class TypeLiteralTest {
         });
     }
 
+    @Test
+    public void classLiteralsAreShared() {
+        assertSame(TypeLiteral.of(String.class), TypeLiteral.of(String.class));
+        assertSame(TypeLiteral.of(String.class), TypeLiteral.of((java.lang.reflect.Type) String.class));
+        assertTypesEqual(TypeLiteral.of(String.class), new TypeLiteral<String>() {
+        });
+    }
+
     @Test
     public void creationFailure_NoType() {
         // No type parameters
@@ -0,0 +1,47 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.mock;
+
+import javax.inject.Inject;
+
+public class MockImplementation2_Generated implements MockInterface2 {
+
+    @Inject
+    MockInterface1 service;
+
+    boolean createdByFactory;
+    boolean injectedByFactory;
+
+    public String getAlteredName() {
+        return "altered_" + service.getName();
+    }
+
+    public String getName() {
+        return "MockImplementation2_GeneratedName";
+    }
+
+    public boolean isCreatedByFactory() {
+        return createdByFactory;
+    }
+
+    public boolean isInjectedByFactory() {
+        return injectedByFactory;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.mock;
+
+import io.bootique.di.Injector;
+import io.bootique.di.Key;
+import io.bootique.di.spi.GeneratedFactory;
+
+/**
+ * Mimics a factory generated by bootique-di-processor, marking objects that it creates and injects.
+ */
+public final class MockImplementation2_Generated_BQFactory implements GeneratedFactory<MockImplementation2_Generated> {
+
+    private static final Key<MockInterface1> KEY_0 = Key.get(MockInterface1.class);
+
+    @Override
+    public MockImplementation2_Generated newInstance(Injector injector) {
+        MockImplementation2_Generated object = new MockImplementation2_Generated();
+        object.createdByFactory = true;
+        return object;
+    }
+
+    @Override
+    public void injectMembers(MockImplementation2_Generated object, Injector injector) {
+        object.service = injector.getInstance(KEY_0);
+        object.injectedByFactory = true;
+    }
+}
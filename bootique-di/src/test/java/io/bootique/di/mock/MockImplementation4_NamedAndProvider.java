@@ -0,0 +1,41 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.mock;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+
+public class MockImplementation4_NamedAndProvider implements MockInterface4 {
+
+    private MockInterface1 service;
+    private Provider<MockInterface1> provider;
+
+    @Inject
+    public MockImplementation4_NamedAndProvider(@Named("two") MockInterface1 service, Provider<MockInterface1> provider) {
+        this.service = service;
+        this.provider = provider;
+    }
+
+    public String getName() {
+        return "constructor_" + service.getName() + "_" + provider.get().getName();
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.Binder;
+import io.bootique.di.BQModule;
+import io.bootique.di.DIBootstrap;
+import io.bootique.di.Key;
+import io.bootique.di.Provides;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BindingGraphTest {
+
+    @Test
+    public void json() {
+        DefaultInjector injector = (DefaultInjector) DIBootstrap.injectorBuilder(b -> {
+                    b.bind(Service.class).to(ServiceImpl.class).initOnStartup();
+                    b.decorate(Service.class).after(ServiceDecorator.class);
+                    b.bindSet(Service.class).add(ServiceImpl.class);
+                    b.bind(Key.get(String.class, "name")).toInstance("x");
+                    b.bind(LazyConsumer.class);
+                }, new ConsumerModule())
+                .build();
+
+        String json = injector.exportGraphAsJson();
+
+        assertTrue(json.contains("\"key\": \"<BindingKey: " + Service.class.getName() + ">\", \"bound\": true, "
+                + "\"kind\": \"implementation\", \"scope\": \"singleton\", \"implementation\": \"" + ServiceImpl.class.getName() + "\", "
+                + "\"decorators\": [\"" + ServiceDecorator.class.getName() + "\"], \"eager\": true, \"optional\": false}"), json);
+        assertTrue(json.contains("\"kind\": \"provides_method\", \"scope\": \"none\""), json);
+        assertTrue(json.contains("\"kind\": \"set\""), json);
+        assertTrue(json.contains("\"kind\": \"instance\""), json);
+        // not bound yet
+        assertTrue(json.contains("\"key\": \"<BindingKey: " + LazyDependency.class.getName() + ">\", \"bound\": false, "
+                + "\"kind\": \"dynamic\", \"scope\": null"), json);
+        assertTrue(json.contains("\"provider\": true, \"origin\": \"provider method 'provideConsumer()' of module '"
+                + ConsumerModule.class.getName() + "'\""), json);
+        assertFalse(json.contains("\"instances\""), json);
+    }
+
+    @Test
+    public void dot() {
+        DefaultInjector injector = (DefaultInjector) DIBootstrap.injectorBuilder(b -> b.bind(Service.class).to(ServiceImpl.class))
+                .build();
+
+        String dot = injector.exportGraphAsDot();
+
+        assertTrue(dot.startsWith("digraph injector {"), dot);
+        assertTrue(dot.contains("[label=\"" + Service.class.getName() + "\\nimplementation, scope: none\\n"
+                + ServiceImpl.class.getName() + "\"]"), dot);
+        assertTrue(dot.contains(" -> "), dot);
+        assertTrue(dot.contains("style=dotted"), dot);
+    }
+
+    @Test
+    public void instrumentation() {
+        DefaultInjector injector = (DefaultInjector) DIBootstrap.injectorBuilder(b -> {
+                    b.bind(Service.class).to(ServiceImpl.class);
+                    b.bind(SingletonService.class);
+                })
+                .enableInstrumentation()
+                .build();
+
+        injector.getInstance(Service.class);
+        injector.getInstance(Service.class);
+        injector.getInstance(SingletonService.class);
+        injector.getInstance(SingletonService.class);
+
+        BindingStats serviceStats = injector.getBinding(Key.get(Service.class)).getStats();
+        assertEquals(2, serviceStats.getInstances());
+        assertTrue(serviceStats.getCreationNanos() > 0);
+        assertTrue(serviceStats.getSelfCreationNanos() <= serviceStats.getCreationNanos());
+        assertEquals(2, injector.getBinding(Key.get(Dependency.class)).getStats().getInstances());
+        assertEquals(1, injector.getBinding(Key.get(SingletonService.class)).getStats().getInstances());
+
+        assertTrue(injector.exportGraphAsJson().contains("\"instances\": 2, \"creationNanos\": "));
+        assertTrue(injector.exportGraphAsDot().contains("instances: 1, time: "));
+    }
+
+    interface Service {
+    }
+
+    static class Dependency {
+    }
+
+    static class ServiceImpl implements Service {
+        @Inject
+        Dependency dependency;
+    }
+
+    static class ServiceDecorator implements Service {
+        @Inject
+        ServiceDecorator(Service delegate) {
+        }
+    }
+
+    static class LazyDependency {
+    }
+
+    static class LazyConsumer {
+        @Inject
+        LazyDependency dependency;
+    }
+
+    @Singleton
+    static class SingletonService {
+    }
+
+    static class Consumer {
+        Consumer(Provider<Service> service) {
+        }
+    }
+
+    static class ConsumerModule implements BQModule {
+
+        @Override
+        public void configure(Binder binder) {
+        }
+
+        @Provides
+        Consumer provideConsumer(Provider<Service> service) {
+            return new Consumer(service);
+        }
+    }
+}
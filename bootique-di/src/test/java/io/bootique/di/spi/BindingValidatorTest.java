@@ -0,0 +1,269 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.BQModule;
+import io.bootique.di.Binder;
+import io.bootique.di.DIBootstrap;
+import io.bootique.di.DIRuntimeException;
+import io.bootique.di.Key;
+import io.bootique.di.Provides;
+import io.bootique.di.TypeLiteral;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BindingValidatorTest {
+
+    @Test
+    public void validGraph() {
+        Counted.created.set(0);
+
+        DIBootstrap.injectorBuilder(b -> {
+                    b.bind(Service.class).to(ServiceImpl.class);
+                    b.bind(Counted.class).inSingletonScope();
+                    b.bindSet(Service.class).add(ServiceImpl.class).addInstance(new ServiceImpl(null));
+                    b.decorate(Service.class).after(ServiceDecorator.class);
+                    b.bind(Key.get(String.class, "name")).toInstance("x");
+                })
+                .disableDynamicBindings()
+                .validateOnBuild()
+                .build();
+
+        assertEquals(0, Counted.created.get(), "Validation must not create objects");
+    }
+
+    @Test
+    public void allProblemsReported() {
+        DIRuntimeException e = assertThrows(DIRuntimeException.class, () -> DIBootstrap.injectorBuilder(b -> {
+                    b.bind(Service.class).to(ServiceImpl.class);
+                    b.bind(Consumer.class);
+                    b.bind(RawProviderConsumer.class);
+                    b.bind(Key.get(new TypeLiteral<GenericConsumer<String>>() {}));
+                })
+                .disableDynamicBindings()
+                .validateOnBuild()
+                .build());
+
+        String message = e.getMessage();
+        assertTrue(message.contains("4 problem(s)"), message);
+        // ServiceImpl dependency
+        assertTrue(message.contains("<BindingKey: " + Counted.class.getName() + ">"), message);
+        // Consumer dependency
+        assertTrue(message.contains("<BindingKey: " + Unbound.class.getName() + ", 'unbound'>"), message);
+        assertTrue(message.contains("Provider field " + RawProviderConsumer.class.getName() + ".provider must be parameterized"), message);
+        assertTrue(message.contains("Unable to resolve type parameter"), message);
+    }
+
+    @Test
+    public void unboundInterface() {
+        DIRuntimeException e = assertThrows(DIRuntimeException.class, () -> DIBootstrap.injectorBuilder(b -> b.bind(ServiceDecorator.class))
+                .validateOnBuild()
+                .build());
+
+        assertTrue(e.getMessage().contains("its type can't be instantiated"), e.getMessage());
+    }
+
+    @Test
+    public void unboundConcreteClass() {
+        DIBootstrap.injectorBuilder(b -> b.bind(ServiceImpl.class))
+                .validateOnBuild()
+                .build();
+    }
+
+    @Test
+    public void providesMethodDependencies() {
+        DIRuntimeException e = assertThrows(DIRuntimeException.class, () -> DIBootstrap.injectorBuilder(new ServiceModule())
+                .disableDynamicBindings()
+                .validateOnBuild()
+                .build());
+
+        assertTrue(e.getMessage().contains("provider method 'provideSet()'"), e.getMessage());
+        assertTrue(e.getMessage().contains("<BindingKey: " + Service.class.getName() + ">"), e.getMessage());
+    }
+
+    @Test
+    public void decoratorDependencies() {
+        DIRuntimeException e = assertThrows(DIRuntimeException.class, () -> DIBootstrap.injectorBuilder(b -> {
+                    b.bind(Service.class).to(ServiceImpl.class);
+                    b.bind(Counted.class);
+                    b.decorate(Service.class).before(UnboundDecorator.class);
+                })
+                .disableDynamicBindings()
+                .validateOnBuild()
+                .build());
+
+        assertTrue(e.getMessage().contains("1 problem(s)"), e.getMessage());
+        assertTrue(e.getMessage().contains("constructor of class '" + UnboundDecorator.class.getName() + "'"), e.getMessage());
+    }
+
+    @Test
+    public void cycle_Classes() {
+        DIRuntimeException e = assertThrows(DIRuntimeException.class, () -> DIBootstrap.injectorBuilder(b -> {
+                    b.bind(CycleA.class);
+                    b.bind(CycleB.class);
+                })
+                .validateOnBuild()
+                .build());
+
+        assertTrue(e.getMessage().contains("Circular dependency detected"), e.getMessage());
+        assertTrue(e.getMessage().contains("none of them is an interface"), e.getMessage());
+    }
+
+    @Test
+    public void cycle_Interfaces() {
+        BQModule module = b -> {
+            b.bind(Service.class).to(CycleService.class);
+            b.bind(Counted.class);
+        };
+
+        DIBootstrap.injectorBuilder(module)
+                .validateOnBuild()
+                .build();
+
+        DIRuntimeException e = assertThrows(DIRuntimeException.class, () -> DIBootstrap.injectorBuilder(module)
+                .disableProxyCreation()
+                .validateOnBuild()
+                .build());
+        assertTrue(e.getMessage().contains("proxy creation is disabled"), e.getMessage());
+    }
+
+    @Test
+    public void cycle_Provider() {
+        DIBootstrap.injectorBuilder(b -> {
+                    b.bind(ProviderCycleA.class);
+                    b.bind(ProviderCycleB.class);
+                })
+                .disableProxyCreation()
+                .validateOnBuild()
+                .build();
+    }
+
+    @Test
+    public void manyBindings() {
+        DIBootstrap.injectorBuilder(b -> {
+                    for (int i = 0; i < 2000; i++) {
+                        b.bind(Key.get(Service.class, "s" + i)).to(ServiceImpl.class);
+                    }
+                    b.bind(Counted.class);
+                })
+                .disableDynamicBindings()
+                .validateOnBuild()
+                .build();
+    }
+
+    interface Service {
+    }
+
+    static class Counted {
+        static final AtomicInteger created = new AtomicInteger();
+
+        Counted() {
+            created.incrementAndGet();
+        }
+    }
+
+    static class ServiceImpl implements Service {
+        final Counted counted;
+
+        @Inject
+        ServiceImpl(Counted counted) {
+            this.counted = counted;
+        }
+    }
+
+    static class ServiceDecorator implements Service {
+        @Inject
+        ServiceDecorator(Service delegate, @Named("name") String name) {
+        }
+    }
+
+    static class UnboundDecorator implements Service {
+        @Inject
+        UnboundDecorator(Service delegate, Unbound unbound) {
+        }
+    }
+
+    static class ServiceModule implements BQModule {
+
+        @Override
+        public void configure(Binder binder) {
+        }
+
+        @Provides
+        Set<Service> provideSet(Service service, Provider<Counted> counted) {
+            return Set.of(service);
+        }
+    }
+
+    static class Unbound {
+    }
+
+    static class Consumer {
+        @Inject
+        @Named("unbound")
+        Unbound unbound;
+    }
+
+    static class RawProviderConsumer {
+        @SuppressWarnings("rawtypes")
+        @Inject
+        Provider provider;
+    }
+
+    static class GenericConsumer<T> {
+        @Inject
+        T value;
+    }
+
+    static class CycleA {
+        @Inject
+        CycleA(CycleB b) {
+        }
+    }
+
+    static class CycleB {
+        @Inject
+        CycleA a;
+    }
+
+    static class ProviderCycleA {
+        @Inject
+        ProviderCycleA(ProviderCycleB b) {
+        }
+    }
+
+    static class ProviderCycleB {
+        @Inject
+        Provider<ProviderCycleA> a;
+    }
+
+    static class CycleService implements Service {
+        @Inject
+        CycleService(Service self, Counted counted) {
+        }
+    }
+}
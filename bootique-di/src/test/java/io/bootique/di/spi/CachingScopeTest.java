@@ -0,0 +1,216 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.BeforeScopeEnd;
+import io.bootique.di.DIBootstrap;
+import io.bootique.di.DIRuntimeException;
+import io.bootique.di.Injector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingScopeTest {
+
+    static final List<String> ended = new ArrayList<>();
+
+    @BeforeEach
+    public void resetEnded() {
+        ended.clear();
+    }
+
+    @Test
+    public void cached() {
+        CachingScope scope = new CachingScope(2);
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(L1.class).in(scope)).build();
+
+        L1 l1 = injector.getInstance(L1.class);
+        assertSame(l1, injector.getInstance(L1.class));
+        assertTrue(ended.isEmpty());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        CachingScope scope = new CachingScope(2);
+        Injector injector = DIBootstrap.injectorBuilder(b -> {
+            b.bind(L1.class).in(scope);
+            b.bind(L2.class).in(scope);
+            b.bind(L3.class).in(scope);
+        }).build();
+
+        L1 l1 = injector.getInstance(L1.class);
+        L2 l2 = injector.getInstance(L2.class);
+
+        // L1 is used again, so L2 must be evicted first
+        assertSame(l1, injector.getInstance(L1.class));
+        injector.getInstance(L3.class);
+
+        assertEquals(List.of("L2"), ended);
+        assertSame(l1, injector.getInstance(L1.class));
+        assertNotSame(l2, injector.getInstance(L2.class));
+    }
+
+    @Test
+    public void shutdown() {
+        CachingScope scope = new CachingScope(1);
+        Injector injector = DIBootstrap.injectorBuilder(b -> {
+            b.bind(L1.class).in(scope);
+            b.bind(L2.class).in(scope);
+        }).build();
+
+        injector.getInstance(L1.class);
+        injector.getInstance(L2.class);
+        assertEquals(List.of("L1"), ended);
+
+        // evicted instance must not be ended twice
+        scope.shutdown();
+        assertEquals(List.of("L1", "L2"), ended);
+    }
+
+    @Test
+    public void evictFailure() {
+        CachingScope scope = new CachingScope(1);
+        Injector injector = DIBootstrap.injectorBuilder(b -> {
+            b.bind(FailingEnd.class).in(scope);
+            b.bind(L1.class).in(scope);
+        }).build();
+
+        injector.getInstance(FailingEnd.class);
+
+        // the failure of the evicted instance must not be thrown to the caller creating an unrelated instance
+        L1 l1 = injector.getInstance(L1.class);
+        assertSame(l1, injector.getInstance(L1.class));
+
+        DIRuntimeException e = assertThrows(DIRuntimeException.class, scope::shutdown);
+        assertTrue(e.getMessage().contains(FailingEnd.class.getName()), e.getMessage());
+
+        // other instances are still ended
+        assertEquals(List.of("L1"), ended);
+    }
+
+    @Test
+    public void softValues() {
+        CachingScope scope = new CachingScope(2, true);
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(L1.class).in(scope)).build();
+
+        L1 l1 = injector.getInstance(L1.class);
+        assertSame(l1, injector.getInstance(L1.class));
+    }
+
+    @Test
+    public void evictWithInvokerFactory() {
+        List<String> invokers = new ArrayList<>();
+        CachingScope scope = new CachingScope(1);
+        scope.setInvokerFactory(new ReflectionInvokerFactory() {
+            @Override
+            public MethodInvoker methodInvoker(Method method) {
+                invokers.add(method.getDeclaringClass().getSimpleName());
+                return super.methodInvoker(method);
+            }
+        });
+
+        Injector injector = DIBootstrap.injectorBuilder(b -> {
+            b.bind(L1.class).in(scope);
+            b.bind(L2.class).in(scope);
+        }).build();
+
+        injector.getInstance(L1.class);
+        injector.getInstance(L2.class);
+        assertEquals(List.of("L1"), ended);
+
+        // both the scope event handlers and the eviction use the scope invocation strategy
+        assertEquals(2, invokers.stream().filter("L1"::equals).count(), invokers.toString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void evictWhileCreating() throws Exception {
+        CachingScope scope = new CachingScope(2);
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CachingScopeProvider<Object> provider = (CachingScopeProvider<Object>) scope.scope(() -> {
+            creating.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return new Object();
+        });
+
+        Thread creator = new Thread(provider::get);
+        creator.setDaemon(true);
+        creator.start();
+        assertTrue(creating.await(5, TimeUnit.SECONDS));
+
+        // eviction is triggered by the creation in another provider and must not wait for this provider creation
+        boolean[] evicted = {true};
+        Thread evictor = new Thread(() -> evicted[0] = provider.evict(scope.newEntry(provider, new Object())));
+        evictor.setDaemon(true);
+        evictor.start();
+        evictor.join(5000);
+
+        assertFalse(evictor.isAlive(), "Eviction waits for the provider lock");
+        assertFalse(evicted[0]);
+
+        release.countDown();
+        creator.join(5000);
+    }
+
+    public static class FailingEnd {
+
+        @BeforeScopeEnd
+        public void end() {
+            throw new IllegalStateException("Failed to end");
+        }
+    }
+
+    public static class L1 {
+
+        @BeforeScopeEnd
+        public void end() {
+            ended.add("L1");
+        }
+    }
+
+    public static class L2 {
+
+        @BeforeScopeEnd
+        public void end() {
+            ended.add("L2");
+        }
+    }
+
+    public static class L3 {
+
+        @BeforeScopeEnd
+        public void end() {
+            ended.add("L3");
+        }
+    }
+}
@@ -21,15 +21,21 @@
 package io.bootique.di.spi;
 
 import io.bootique.di.BQModule;
+import io.bootique.di.DIRuntimeException;
 import io.bootique.di.Key;
 import io.bootique.di.TypeLiteral;
 import io.bootique.di.mock.*;
 import org.junit.jupiter.api.Test;
 
+import java.util.EnumSet;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DefaultInjectorInjectionTest {
 
@@ -48,6 +54,22 @@ public class DefaultInjectorInjectionTest {
         assertEquals("altered_MyName", service.getAlteredName());
     }
 
+    @Test
+    public void fieldInjection_NoMethodHandles() {
+
+        BQModule module = binder -> {
+            binder.bind(MockInterface1.class).to(MockImplementation1.class);
+            binder.bind(MockInterface2.class).to(MockImplementation2.class);
+        };
+
+        DefaultInjector injector = new DefaultInjector(
+                EnumSet.of(DefaultInjector.Options.DISABLE_METHOD_HANDLES), new InjectorPredicates(), module);
+
+        MockInterface2 service = injector.getInstance(MockInterface2.class);
+        assertNotNull(service);
+        assertEquals("altered_MyName", service.getAlteredName());
+    }
+
     @Test
     public void fieldInjection_Named() {
 
@@ -81,6 +103,29 @@ public class DefaultInjectorInjectionTest {
         assertEquals("altered_MyName:XName", service.getAlteredName());
     }
 
+    @Test
+    public void fieldInjectionPlan() {
+
+        BQModule module = binder -> {
+            binder.bind(MockInterface1.class).to(MockImplementation1.class);
+            binder.bind(MockInterface2.class).to(MockImplementation2Sub1.class).withoutScope();
+            binder.bind(MockInterface3.class).to(MockImplementation3.class);
+        };
+
+        DefaultInjector injector = new DefaultInjector(module);
+
+        assertEquals("altered_MyName:XName", injector.getInstance(MockInterface2.class).getAlteredName());
+        assertEquals("altered_MyName:XName", injector.getInstance(MockInterface2.class).getAlteredName());
+
+        FieldInjectionPlan plan = injector.getFieldInjectionPlan(MockImplementation2Sub1.class);
+        assertSame(plan, injector.getFieldInjectionPlan(MockImplementation2Sub1.class));
+
+        // superclass fields go first
+        assertEquals(2, plan.getFields().length);
+        assertEquals(Key.get(MockInterface1.class), plan.getFields()[0].getKey());
+        assertEquals(Key.get(MockInterface3.class), plan.getFields()[1].getKey());
+    }
+
     @Test
     public void constructorInjection() {
 
@@ -131,6 +176,43 @@ public class DefaultInjectorInjectionTest {
         assertEquals("constructor_alt2_XName", service.getName());
     }
 
+    @Test
+    public void constructorInjection_NamedAndProvider_Repeated() {
+
+        BQModule module = binder -> {
+            binder.bind(MockInterface1.class).to(MockImplementation1.class);
+            binder.bind(Key.get(MockInterface1.class, "two")).to(MockImplementation1Alt2.class);
+            binder.bind(MockInterface4.class).to(MockImplementation4_NamedAndProvider.class);
+        };
+
+        DefaultInjector injector = new DefaultInjector(module);
+
+        // the second call goes through the cached argument keys
+        MockInterface4 service1 = injector.getInstance(MockInterface4.class);
+        MockInterface4 service2 = injector.getInstance(MockInterface4.class);
+        assertNotSame(service1, service2);
+        assertEquals("constructor_alt2_MyName", service1.getName());
+        assertEquals("constructor_alt2_MyName", service2.getName());
+    }
+
+    @Test
+    public void constructorInjection_Named_Unbound_Repeated() {
+
+        BQModule module = binder -> {
+            binder.bind(MockInterface1.class).to(MockImplementation1.class);
+            binder.bind(MockInterface4.class).to(MockImplementation4_NamedAndProvider.class);
+        };
+
+        DefaultInjector injector = new DefaultInjector(module);
+
+        // no binding for the qualified argument, must be reported on every call, not only the one resolving the keys.
+        // The unqualified key is bound, so a cached key that lost the qualifier would make the second call succeed
+        DIRuntimeException e1 = assertThrows(DIRuntimeException.class, () -> injector.getInstance(MockInterface4.class));
+        DIRuntimeException e2 = assertThrows(DIRuntimeException.class, () -> injector.getInstance(MockInterface4.class));
+        assertTrue(e2.getMessage().contains("Get argument 0 for constructor"), e2.getMessage());
+        assertEquals(e1.getMessage(), e2.getMessage());
+    }
+
     @Test
     public void providerInjection_Constructor() {
 
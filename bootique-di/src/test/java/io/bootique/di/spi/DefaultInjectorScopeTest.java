@@ -26,6 +26,8 @@ import io.bootique.di.Injector;
 import io.bootique.di.mock.*;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collection;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class DefaultInjectorScopeTest {
@@ -187,4 +189,91 @@ public class DefaultInjectorScopeTest {
         assertNotSame(instance1, instance2);
         assertNotSame(instance2, instance3);
     }
+
+    @Test
+    public void threadScope() throws InterruptedException {
+
+        BQModule module = binder -> binder.bind(MockInterface1.class).to(MockImplementation1.class).inThreadScope();
+
+        DefaultInjector injector = new DefaultInjector(module);
+
+        MockInterface1 instance1 = injector.getInstance(MockInterface1.class);
+        MockInterface1 instance2 = injector.getInstance(MockInterface1.class);
+        assertSame(instance1, instance2);
+
+        MockInterface1[] otherThreadInstances = new MockInterface1[2];
+        Thread thread = new Thread(() -> {
+            otherThreadInstances[0] = injector.getInstance(MockInterface1.class);
+            otherThreadInstances[1] = injector.getInstance(MockInterface1.class);
+        });
+        thread.start();
+        thread.join();
+
+        assertNotNull(otherThreadInstances[0]);
+        assertSame(otherThreadInstances[0], otherThreadInstances[1]);
+        assertNotSame(instance1, otherThreadInstances[0]);
+    }
+
+    @Test
+    public void threadScope_AnnotatedEvents() throws InterruptedException {
+
+        MockImplementation1_EventAnnotations.reset();
+
+        BQModule module = binder -> binder.bind(MockInterface1.class).to(
+                MockImplementation1_EventAnnotations.class).inThreadScope();
+
+        DefaultInjector injector = new DefaultInjector(module);
+
+        // keep the instance reachable after the thread is finished, as the scope doesn't retain it
+        MockInterface1[] otherThreadInstance = new MockInterface1[1];
+        Thread thread = new Thread(() -> otherThreadInstance[0] = injector.getInstance(MockInterface1.class));
+        thread.start();
+        thread.join();
+
+        assertFalse(MockImplementation1_EventAnnotations.shutdown1);
+
+        injector.shutdown();
+
+        assertTrue(MockImplementation1_EventAnnotations.shutdown1);
+        assertTrue(MockImplementation1_EventAnnotations.shutdown2);
+        assertTrue(MockImplementation1_EventAnnotations.shutdown3);
+    }
+
+    @Test
+    public void threadScope_ThreadChurn() throws InterruptedException {
+
+        BQModule module = binder -> binder.bind(MockInterface1.class).to(
+                MockImplementation1_EventAnnotations.class).inThreadScope();
+
+        DefaultInjector injector = new DefaultInjector(module);
+        Collection<ScopeEventBinding> listeners = injector.getThreadScope().listeners.get(BeforeScopeEnd.class.getName());
+
+        // keep the first instance reachable to count its handlers
+        MockInterface1[] firstInstance = new MockInterface1[1];
+        Thread firstThread = new Thread(() -> firstInstance[0] = injector.getInstance(MockInterface1.class));
+        firstThread.start();
+        firstThread.join();
+
+        int handlers = listeners.size();
+        assertTrue(handlers > 0);
+
+        for (int i = 0; i < 50; i++) {
+            Thread thread = new Thread(() -> injector.getInstance(MockInterface1.class));
+            thread.start();
+            thread.join();
+        }
+
+        // registrations of the instances of the finished threads are pruned once those are collected
+        for (int i = 0; i < 100 && listeners.size() > 2 * handlers; i++) {
+            System.gc();
+            Thread.sleep(10);
+
+            Thread thread = new Thread(() -> injector.getInstance(MockInterface1.class));
+            thread.start();
+            thread.join();
+        }
+
+        assertTrue(listeners.size() <= 2 * handlers, () -> "Unexpected listeners count: " + listeners.size());
+        assertNotNull(firstInstance[0]);
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.DIRuntimeException;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Provider;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DefaultScopeProviderTest {
+
+    @Test
+    public void get_Singleton() {
+        AtomicInteger counter = new AtomicInteger();
+        DefaultScopeProvider<Integer> provider = new DefaultScopeProvider<>(new DefaultScope(), counter::incrementAndGet);
+
+        assertEquals(Integer.valueOf(1), provider.get());
+        assertEquals(Integer.valueOf(1), provider.get());
+    }
+
+    @Test
+    public void get_CrossThreadCycle() throws Exception {
+        DefaultScope scope = new DefaultScope();
+        CountDownLatch bothLocked = new CountDownLatch(2);
+
+        @SuppressWarnings("unchecked")
+        Provider<Object>[] providers = new Provider[2];
+
+        // each provider waits until the other one is locked by another thread, then asks for it
+        providers[0] = new DefaultScopeProvider<>(scope, () -> {
+            await(bothLocked);
+            return "a" + providers[1].get();
+        });
+        providers[1] = new DefaultScopeProvider<>(scope, () -> {
+            await(bothLocked);
+            return "b" + providers[0].get();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> f0 = executor.submit(() -> providers[0].get());
+            Future<Object> f1 = executor.submit(() -> providers[1].get());
+
+            int deadlocks = 0;
+            for (Future<Object> f : new Future[]{f0, f1}) {
+                try {
+                    f.get(10, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof DIRuntimeException
+                            && e.getCause().getMessage().startsWith("Deadlock detected")) {
+                        deadlocks++;
+                    }
+                }
+            }
+
+            assertTrue(deadlocks > 0, "Deadlock must be detected");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void checkDeadlock_ReleasedWhileChecking() {
+        DefaultScope scope = new DefaultScope();
+        DefaultScopeProvider<Object> r = new DefaultScopeProvider<>(scope, Object::new);
+        DefaultScopeProvider<Object> p = new DefaultScopeProvider<>(scope, Object::new);
+
+        Thread current = Thread.currentThread();
+        Thread t2 = new Thread(() -> {});
+
+        // the current thread holds R and waits for P. The chain walk reads P creator as T2, then T2 releases P and
+        // starts waiting for R before the walk gets to it. P creator is left stale to reproduce what the walk saw
+        r.lock.lock();
+        r.creator = current;
+        p.creator = t2;
+        DefaultScopeProvider.WAITING.put(current, p);
+        DefaultScopeProvider.WAITING.put(t2, r);
+        try {
+            assertNotNull(p.findCycle(current), "The chain as read must look like a cycle");
+            assertDoesNotThrow(() -> p.checkDeadlock(current));
+
+            p.creator = null;
+            assertNull(p.findCycle(current));
+        } finally {
+            DefaultScopeProvider.WAITING.remove(current);
+            DefaultScopeProvider.WAITING.remove(t2);
+            r.creator = null;
+            r.lock.unlock();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.countDown();
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.BeforeScopeEnd;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DefaultScopeTest {
+
+    @Test
+    public void eventHandlers_SharedByInstancesOfSameClass() {
+        DefaultScope scope = new DefaultScope();
+
+        Listener l1 = new Listener();
+        Listener l2 = new Listener();
+        scope.addScopeEventListener(l1);
+        scope.addScopeEventListener(l2);
+
+        scope.postScopeEvent(BeforeScopeEnd.class);
+
+        assertEquals(1, l1.beforeScopeEnd);
+        assertEquals(1, l2.beforeScopeEnd);
+        assertEquals(0, l1.customEvent);
+    }
+
+    @Test
+    public void eventHandlers_CustomEvent() {
+        DefaultScope scope = new DefaultScope(CustomEvent.class);
+
+        Listener l1 = new Listener();
+        scope.addScopeEventListener(l1);
+
+        scope.postScopeEvent(CustomEvent.class, "x");
+        scope.postScopeEvent(CustomEvent.class, "y");
+
+        assertEquals(2, l1.customEvent);
+        assertEquals("y", l1.lastArg);
+        assertEquals(0, l1.beforeScopeEnd);
+    }
+
+    @Test
+    public void eventHandlers_PerScopeEventTypes() {
+        // same class registered in scopes with different event types must be resolved separately
+        DefaultScope scope1 = new DefaultScope();
+        DefaultScope scope2 = new DefaultScope(CustomEvent.class);
+
+        Listener l1 = new Listener();
+        Listener l2 = new Listener();
+        scope1.addScopeEventListener(l1);
+        scope2.addScopeEventListener(l2);
+
+        scope1.postScopeEvent(CustomEvent.class, "x");
+        scope2.postScopeEvent(CustomEvent.class, "x");
+
+        assertEquals(0, l1.customEvent);
+        assertEquals(1, l2.customEvent);
+    }
+
+    @Test
+    public void eventHandlers_SharedByScopes() {
+        List<String> invokers = new ArrayList<>();
+        InvokerFactory invokerFactory = new ReflectionInvokerFactory() {
+            @Override
+            public MethodInvoker methodInvoker(Method method) {
+                invokers.add(method.getName());
+                return super.methodInvoker(method);
+            }
+        };
+
+        // short-lived scopes with the same invocation strategy must not rebuild the handlers
+        for (int i = 0; i < 3; i++) {
+            DefaultScope scope = new DefaultScope();
+            scope.setInvokerFactory(invokerFactory);
+
+            Listener l1 = new Listener();
+            scope.addScopeEventListener(l1);
+            scope.postScopeEvent(BeforeScopeEnd.class);
+            assertEquals(1, l1.beforeScopeEnd);
+        }
+
+        assertEquals(List.of("beforeScopeEnd"), invokers);
+    }
+
+    @Test
+    public void eventHandlers_NoHandlers() {
+        DefaultScope scope = new DefaultScope();
+        scope.addScopeEventListener(new Object());
+
+        for (String event : scope.listeners.keySet()) {
+            assertTrue(scope.listeners.get(event).isEmpty(), event);
+        }
+    }
+
+    @Test
+    public void removeScopeEventListener() {
+        DefaultScope scope = new DefaultScope(CustomEvent.class);
+
+        Listener l1 = new Listener();
+        Listener l2 = new Listener();
+        scope.addScopeEventListener(l1);
+        scope.addScopeEventListener(l2);
+
+        scope.removeScopeEventListener(l1);
+        scope.postScopeEvent(BeforeScopeEnd.class);
+        scope.postScopeEvent(CustomEvent.class, "x");
+
+        assertEquals(0, l1.beforeScopeEnd);
+        assertEquals(0, l1.customEvent);
+        assertEquals(1, l2.beforeScopeEnd);
+        assertEquals(1, l2.customEvent);
+
+        // removing an object twice or an unknown object is a noop
+        scope.removeScopeEventListener(l1);
+        scope.removeScopeEventListener(new Object());
+        scope.postScopeEvent(BeforeScopeEnd.class);
+        assertEquals(2, l2.beforeScopeEnd);
+    }
+
+    @Test
+    public void removeScopeEventListener_ShortLivedObjects() {
+        DefaultScope scope = new DefaultScope(CustomEvent.class);
+
+        for (int i = 0; i < 1000; i++) {
+            Listener l = new Listener();
+            scope.addScopeEventListener(l);
+            scope.removeScopeEventListener(l);
+        }
+
+        assertTrue(scope.listeners.get(BeforeScopeEnd.class.getName()).isEmpty());
+        assertTrue(scope.listeners.get(CustomEvent.class.getName()).isEmpty());
+    }
+
+    @Test
+    public void removeScopeEventListener_CollectedObjects() throws InterruptedException {
+        DefaultScope scope = new DefaultScope(CustomEvent.class);
+
+        for (int i = 0; i < 1000; i++) {
+            scope.addScopeEventListener(new Listener());
+        }
+
+        Collection<ScopeEventBinding> listeners = scope.listeners.get(BeforeScopeEnd.class.getName());
+        assertEquals(1000, listeners.size());
+
+        // bindings of the collected objects must be unlinked without posting any events
+        for (int i = 0; i < 100 && !listeners.isEmpty(); i++) {
+            System.gc();
+            Thread.sleep(10);
+            scope.removeScopeEventListener(new Object());
+        }
+
+        assertTrue(listeners.isEmpty());
+        assertTrue(scope.listeners.get(CustomEvent.class.getName()).isEmpty());
+    }
+
+    @Test
+    public void removeScopeEventListener_KeepsAfterScopeEnd() {
+        DefaultScope scope = new DefaultScope();
+
+        AfterEndListener l1 = new AfterEndListener();
+        scope.addScopeEventListener(l1);
+        scope.removeScopeEventListener(l1);
+
+        scope.postScopeEvent(AfterScopeEnd.class);
+        assertEquals(1, l1.afterScopeEnd);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    @interface CustomEvent {
+    }
+
+    public static class Listener {
+
+        int beforeScopeEnd;
+        int customEvent;
+        Object lastArg;
+
+        @BeforeScopeEnd
+        public void beforeScopeEnd() {
+            beforeScopeEnd++;
+        }
+
+        @CustomEvent
+        public void customEvent(Object arg) {
+            customEvent++;
+            lastArg = arg;
+        }
+    }
+
+    public static class AfterEndListener {
+
+        int afterScopeEnd;
+
+        @AfterScopeEnd
+        public void afterScopeEnd() {
+            afterScopeEnd++;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.Key;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrozenBindingTableTest {
+
+    @Test
+    public void get() {
+        Map<Key<?>, Binding<?>> bindings = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            Key<String> key = Key.get(String.class, "k" + i);
+            bindings.put(key, new Binding<>(key, () -> "v", NoScope.INSTANCE, false));
+        }
+
+        // incomplete binding, must be skipped
+        Key<Integer> incomplete = Key.get(Integer.class);
+        bindings.put(incomplete, new Binding<>(incomplete, null, NoScope.INSTANCE, false));
+
+        FrozenBindingTable table = FrozenBindingTable.of(bindings);
+        assertEquals(100, table.size());
+
+        for (int i = 0; i < 100; i++) {
+            Key<String> key = Key.get(String.class, "k" + i);
+            assertSame(bindings.get(key), table.get(key));
+        }
+
+        assertNull(table.get(incomplete));
+        assertNull(table.get(Key.get(String.class)));
+    }
+
+    @Test
+    public void empty() {
+        FrozenBindingTable table = FrozenBindingTable.of(Map.of());
+        assertEquals(0, table.size());
+        assertNull(table.get(Key.get(String.class)));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.InjectionTraceElement;
+import io.bootique.di.Key;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InjectionTraceTest {
+
+    @Test
+    public void drain() {
+        InjectionTrace trace = new InjectionTrace();
+
+        trace.push(Key.get(String.class));
+        trace.updateMessage("Get argument %d for %s", 1, new TestProvider(), null);
+
+        trace.push(Key.get(Integer.class));
+        trace.push(Key.get(Long.class));
+        trace.updateMessage("Resolve map key '%s'", InjectionTrace.NO_INDEX, "k", null);
+        trace.pop();
+
+        InjectionTraceElement[] elements = trace.drain();
+        assertEquals(2, elements.length);
+        assertEquals(0, trace.size());
+
+        assertEquals(Key.get(Integer.class), elements[0].getBindingKey());
+        assertEquals("", elements[0].getMessage());
+        assertEquals(Key.get(String.class), elements[1].getBindingKey());
+        assertEquals("Get argument 1 for test provider", elements[1].getMessage());
+
+        // popping a drained trace is a noop
+        trace.pop();
+        assertEquals(0, trace.size());
+    }
+
+    @Test
+    public void deepTrace() {
+        InjectionTrace trace = new InjectionTrace();
+
+        for (int i = 0; i < 100; i++) {
+            trace.push(Key.get(String.class, "k" + i));
+            trace.updateMessage("Resolving set element %d", i, null, null);
+        }
+
+        InjectionTraceElement[] elements = trace.drain();
+        assertEquals(100, elements.length);
+        assertEquals(Key.get(String.class, "k99"), elements[0].getBindingKey());
+        assertEquals("Resolving set element 0", elements[99].getMessage());
+    }
+
+    private static class TestProvider implements NamedProvider<Object> {
+
+        @Override
+        public Object get() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return "test provider";
+        }
+    }
+}
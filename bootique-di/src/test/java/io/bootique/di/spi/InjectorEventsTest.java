@@ -0,0 +1,137 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.DIBootstrap;
+import io.bootique.di.Injector;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.inject.Inject;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InjectorEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        List<RecordedEvent> events = record(new Recording());
+        assertEquals(List.of(), events);
+    }
+
+    @Test
+    public void events() throws Exception {
+        Recording recording = new Recording();
+        recording.enable("io.bootique.di.KeyResolved");
+        recording.enable("io.bootique.di.SingletonCreated");
+        recording.enable("io.bootique.di.DynamicBindingCreated");
+        recording.enable("io.bootique.di.ProxyCreated");
+        recording.enable("io.bootique.di.ScopeEventDispatched");
+        recording.enable("io.bootique.di.InjectorShutdown");
+
+        List<RecordedEvent> events = record(recording);
+
+        RecordedEvent singleton = find(events, "io.bootique.di.SingletonCreated");
+        assertEquals(ServiceImpl.class.getName(), singleton.getClass("instanceClass").getName());
+        assertFalse(singleton.getBoolean("failed"));
+        assertNotNull(singleton.getThread());
+
+        // nested lookups are committed first
+        assertTrue(events.stream()
+                .filter(e -> e.getEventType().getName().equals("io.bootique.di.KeyResolved"))
+                .anyMatch(e -> e.getString("key").equals("<BindingKey: " + Service.class.getName() + ">")));
+
+        assertTrue(events.stream()
+                .filter(e -> e.getEventType().getName().equals("io.bootique.di.DynamicBindingCreated"))
+                .anyMatch(e -> e.getClass("implementation").getName().equals(Consumer.class.getName())));
+
+        RecordedEvent proxy = find(events, "io.bootique.di.ProxyCreated");
+        assertEquals(Service.class.getName(), proxy.getClass("proxyInterface").getName());
+
+        // thread scope is shut down first
+        assertTrue(events.stream()
+                .filter(e -> e.getEventType().getName().equals("io.bootique.di.ScopeEventDispatched"))
+                .anyMatch(e -> e.getString("scope").equals(DefaultScope.class.getName())
+                        && e.getClass("eventType").getName().equals(AfterScopeEnd.class.getName())
+                        && e.getInt("listeners") > 0));
+
+        RecordedEvent shutdown = find(events, "io.bootique.di.InjectorShutdown");
+        assertTrue(shutdown.getInt("bindings") > 0);
+    }
+
+    private List<RecordedEvent> record(Recording recording) throws Exception {
+        try (recording) {
+            recording.start();
+
+            Injector injector = DIBootstrap.createInjector(b -> b.bind(Service.class).to(ServiceImpl.class).inSingletonScope());
+            Service service = injector.getInstance(Service.class);
+            assertSame(service.getConsumer(), service.getConsumer().getService().getConsumer());
+            injector.shutdown();
+
+            recording.stop();
+            Path file = tempDir.resolve("injector.jfr");
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().startsWith("io.bootique.di."))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No " + name + " event recorded"));
+    }
+
+    public interface Service {
+        Consumer getConsumer();
+    }
+
+    public static class ServiceImpl implements Service {
+
+        @Inject
+        Consumer consumer;
+
+        @Override
+        public Consumer getConsumer() {
+            return consumer;
+        }
+    }
+
+    public static class Consumer {
+
+        @Inject
+        Service service;
+
+        public Service getService() {
+            return service;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.BQModule;
+import io.bootique.di.DIBootstrap;
+import io.bootique.di.DIRuntimeException;
+import io.bootique.di.Injector;
+import io.bootique.di.Key;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InjectorMetricsTest {
+
+    @Test
+    public void noBindings() {
+        CountingInjectorMetrics metrics = new CountingInjectorMetrics();
+        assertTrue(metrics.snapshot().isEmpty());
+        assertNull(metrics.snapshot(Key.get(Service.class)));
+    }
+
+    @Test
+    public void resolutionsAndInstances() {
+        CountingInjectorMetrics metrics = new CountingInjectorMetrics();
+        Injector injector = DIBootstrap.injectorBuilder(b -> {
+                    b.bind(Service.class).inSingletonScope();
+                    b.bind(Consumer.class);
+                })
+                .withMetrics(metrics)
+                .build();
+
+        injector.getInstance(Consumer.class);
+        injector.getInstance(Consumer.class);
+        injector.getInstance(Service.class);
+
+        CountingInjectorMetrics.BindingMetrics service = metrics.snapshot(Key.get(Service.class));
+        assertEquals(3, service.getResolutions());
+        assertEquals(1, service.getInstances());
+        assertEquals(0, service.getFailures());
+        assertTrue(service.getCreationNanos() > 0);
+
+        CountingInjectorMetrics.BindingMetrics consumer = metrics.snapshot().get(Key.get(Consumer.class));
+        assertEquals(2, consumer.getResolutions());
+        assertEquals(2, consumer.getInstances());
+        assertTrue(consumer.getCreationNanos() >= consumer.getSelfCreationNanos());
+
+        injector.shutdown();
+        assertEquals(3, metrics.snapshot(Key.get(Service.class)).getResolutions());
+    }
+
+    @Test
+    public void dynamicBindings() {
+        CountingInjectorMetrics metrics = new CountingInjectorMetrics();
+        Injector injector = DIBootstrap.injectorBuilder().withMetrics(metrics).build();
+
+        assertNull(metrics.snapshot(Key.get(Consumer.class)));
+        injector.getInstance(Consumer.class);
+
+        assertEquals(1, metrics.snapshot(Key.get(Consumer.class)).getInstances());
+        assertEquals(1, metrics.snapshot(Key.get(Service.class)).getInstances());
+    }
+
+    @Test
+    public void failures() {
+        CountingInjectorMetrics metrics = new CountingInjectorMetrics();
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(Service.class).toProvider(FailingProvider.class))
+                .withMetrics(metrics)
+                .build();
+
+        assertThrows(DIRuntimeException.class, () -> injector.getInstance(Service.class));
+        assertThrows(DIRuntimeException.class, () -> injector.getInstance(Service.class));
+
+        CountingInjectorMetrics.BindingMetrics service = metrics.snapshot(Key.get(Service.class));
+        assertEquals(2, service.getResolutions());
+        assertEquals(0, service.getInstances());
+        assertEquals(2, service.getFailures());
+    }
+
+    @Test
+    public void concurrentResolutions() throws Exception {
+        CountingInjectorMetrics metrics = new CountingInjectorMetrics();
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(Service.class).inSingletonScope())
+                .withMetrics(metrics)
+                .build();
+
+        int threads = 8;
+        int lookups = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < lookups; j++) {
+                        injector.getInstance(Service.class);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CountingInjectorMetrics.BindingMetrics service = metrics.snapshot(Key.get(Service.class));
+        assertEquals(threads * lookups, service.getResolutions());
+        assertEquals(1, service.getInstances());
+    }
+
+    @Test
+    public void severalInjectors() {
+        CountingInjectorMetrics metrics = new CountingInjectorMetrics();
+        DIBootstrap.injectorBuilder().withMetrics(metrics).build().getInstance(Service.class);
+        DIBootstrap.injectorBuilder().withMetrics(metrics).build().getInstance(Service.class);
+
+        CountingInjectorMetrics.BindingMetrics service = metrics.snapshot(Key.get(Service.class));
+        assertEquals(2, service.getResolutions());
+        assertEquals(2, service.getInstances());
+    }
+
+    @Test
+    public void bindingStats() {
+        CountingInjectorMetrics metrics = new CountingInjectorMetrics();
+        BQModule module = b -> b.bind(Service.class).initOnStartup();
+
+        DefaultInjector injector1 = (DefaultInjector) DIBootstrap.injectorBuilder(module)
+                .withMetrics(metrics)
+                .profileStartup()
+                .build();
+        injector1.getInstance(Service.class);
+
+        DefaultInjector injector2 = (DefaultInjector) DIBootstrap.injectorBuilder(module)
+                .withMetrics(metrics)
+                .profileStartup()
+                .build();
+
+        // each injector sees the statistics of its own bindings, while the metrics sum them up
+        BindingStats stats1 = injector1.getBinding(Key.get(Service.class)).getStats();
+        BindingStats stats2 = injector2.getBinding(Key.get(Service.class)).getStats();
+        assertEquals(2, stats1.getResolutions());
+        assertEquals(1, stats2.getResolutions());
+        assertEquals(1, stats2.getInstances());
+        assertEquals(3, metrics.snapshot(Key.get(Service.class)).getResolutions());
+        assertEquals(2, metrics.snapshot(Key.get(Service.class)).getInstances());
+
+        List<StartupReport.ServiceTiming> services = injector2.getStartupReport().getServices();
+        assertEquals(1, services.size());
+        assertEquals(stats2.getCreationNanos(), services.get(0).getTotalNanos());
+        assertEquals(stats2.getSelfCreationNanos(), services.get(0).getSelfNanos());
+    }
+
+    @Test
+    public void customMetrics() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        InjectorMetrics metrics = key -> {
+            if (!key.equals(Key.get(Service.class))) {
+                return new CountingInjectorMetrics().bindingCreated(key);
+            }
+
+            events.add("binding");
+            return new InjectorMetrics.BindingRecorder() {
+                @Override
+                public void resolved() {
+                    events.add("resolved");
+                }
+
+                @Override
+                public void created(long nanos, long selfNanos) {
+                    events.add("created");
+                }
+
+                @Override
+                public void failed(long nanos) {
+                    events.add("failed");
+                }
+            };
+        };
+
+        Injector injector = DIBootstrap.injectorBuilder().withMetrics(metrics).build();
+
+        injector.getInstance(Service.class);
+        injector.getInstance(Service.class);
+        assertEquals(List.of("binding", "resolved", "created", "resolved", "created"), events);
+    }
+
+    public static class Service {
+    }
+
+    public static class Consumer {
+
+        @Inject
+        Service service;
+    }
+
+    public static class FailingProvider implements Provider<Service> {
+
+        @Override
+        public Service get() {
+            throw new IllegalStateException("test");
+        }
+    }
+}
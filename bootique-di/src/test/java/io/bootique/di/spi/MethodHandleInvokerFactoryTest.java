@@ -0,0 +1,122 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MethodHandleInvokerFactoryTest {
+
+    private final InvokerFactory factory = MethodHandleInvokerFactory.INSTANCE;
+
+    @Test
+    public void constructorInvoker() throws Exception {
+        Constructor<Target> constructor = Target.class.getDeclaredConstructor(String.class, int.class);
+        constructor.setAccessible(true);
+
+        Target target = factory.constructorInvoker(constructor).newInstance(new Object[]{"a", 5});
+        assertEquals("a5", target.value);
+    }
+
+    @Test
+    public void methodInvoker() throws Exception {
+        Method method = Target.class.getDeclaredMethod("concat", String.class);
+        method.setAccessible(true);
+
+        Target target = new Target("a", 1);
+        assertEquals("a1b", factory.methodInvoker(method).invoke(target, new Object[]{"b"}));
+    }
+
+    @Test
+    public void methodInvoker_StaticAndVoid() throws Exception {
+        Method staticMethod = Target.class.getDeclaredMethod("create");
+        staticMethod.setAccessible(true);
+        Method voidMethod = Target.class.getDeclaredMethod("reset");
+        voidMethod.setAccessible(true);
+
+        Target target = (Target) factory.methodInvoker(staticMethod).invoke(null, new Object[0]);
+        assertEquals("x0", target.value);
+
+        assertNull(factory.methodInvoker(voidMethod).invoke(target, null));
+        assertNull(target.value);
+    }
+
+    @Test
+    public void methodInvoker_Exception() throws Exception {
+        Method method = Target.class.getDeclaredMethod("fail");
+        method.setAccessible(true);
+
+        InvocationTargetException e = assertThrows(InvocationTargetException.class,
+                () -> factory.methodInvoker(method).invoke(new Target("a", 1), new Object[0]));
+        assertEquals(IllegalStateException.class, e.getCause().getClass());
+    }
+
+    @Test
+    public void fieldSetter() throws Exception {
+        Field field = Target.class.getDeclaredField("value");
+        field.setAccessible(true);
+
+        Target target = new Target("a", 1);
+        factory.fieldSetter(field).set(target, "b");
+        assertEquals("b", target.value);
+    }
+
+    @Test
+    public void fieldSetter_Final() throws Exception {
+        Field field = Target.class.getDeclaredField("finalValue");
+        field.setAccessible(true);
+
+        Target target = new Target("a", 1);
+        factory.fieldSetter(field).set(target, "b");
+        assertEquals("b", field.get(target));
+    }
+
+    private static class Target {
+
+        private String value;
+        private final String finalValue = null;
+
+        private Target(String value, int i) {
+            this.value = value + i;
+        }
+
+        private static Target create() {
+            return new Target("x", 0);
+        }
+
+        private String concat(String suffix) {
+            return value + suffix;
+        }
+
+        private void reset() {
+            value = null;
+        }
+
+        private void fail() {
+            throw new IllegalStateException("test");
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.BeforeScopeEnd;
+import io.bootique.di.DIBootstrap;
+import io.bootique.di.DIRuntimeException;
+import io.bootique.di.Injector;
+import io.bootique.di.Key;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Provider;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PooledScopeTest {
+
+    static final AtomicInteger created = new AtomicInteger();
+    static final AtomicInteger ended = new AtomicInteger();
+
+    @BeforeEach
+    public void resetCounters() {
+        created.set(0);
+        ended.set(0);
+    }
+
+    @Test
+    public void lease() {
+        PooledScope scope = new PooledScope(2);
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(Heavy.class).in(scope)).build();
+        Provider<Heavy> provider = injector.getProvider(Heavy.class);
+
+        Heavy h1;
+        try (PooledScope.Lease<Heavy> lease = scope.lease(provider)) {
+            h1 = lease.get();
+        }
+
+        try (PooledScope.Lease<Heavy> lease1 = scope.lease(provider);
+             PooledScope.Lease<Heavy> lease2 = scope.lease(provider)) {
+            assertSame(h1, lease1.get());
+            assertNotSame(h1, lease2.get());
+        }
+
+        assertEquals(2, created.get());
+        assertEquals(0, ended.get());
+    }
+
+    @Test
+    public void lease_WithMetrics() {
+        PooledScope scope = new PooledScope(2);
+        CountingInjectorMetrics metrics = new CountingInjectorMetrics();
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(Heavy.class).in(scope))
+                .withMetrics(metrics)
+                .build();
+
+        try (PooledScope.Lease<Heavy> lease = scope.lease(injector.getProvider(Heavy.class))) {
+            assertNotNull(lease.get());
+        }
+
+        CountingInjectorMetrics.BindingMetrics heavy = metrics.snapshot(Key.get(Heavy.class));
+        assertEquals(1, heavy.getResolutions());
+        assertEquals(1, heavy.getInstances());
+    }
+
+    @Test
+    public void lease_WithInstrumentation() {
+        PooledScope scope = new PooledScope(2);
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(Heavy.class).in(scope))
+                .enableInstrumentation()
+                .profileStartup()
+                .build();
+
+        try (PooledScope.Lease<Heavy> lease = scope.lease(injector.getProvider(Heavy.class))) {
+            assertNotNull(lease.get());
+        }
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void lease_PoolOverflow() {
+        PooledScope scope = new PooledScope(1);
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(Heavy.class).in(scope)).build();
+        Provider<Heavy> provider = injector.getProvider(Heavy.class);
+
+        PooledScope.Lease<Heavy> lease1 = scope.lease(provider);
+        PooledScope.Lease<Heavy> lease2 = scope.lease(provider);
+        lease1.close();
+        lease2.close();
+
+        // closing twice is a noop
+        lease2.close();
+
+        assertEquals(2, created.get());
+        assertEquals(1, ended.get());
+        assertThrows(DIRuntimeException.class, lease1::get);
+
+        scope.shutdown();
+        assertEquals(2, ended.get());
+    }
+
+    @Test
+    public void lease_ForeignProvider() {
+        PooledScope scope = new PooledScope(1);
+        assertThrows(DIRuntimeException.class, () -> scope.lease(Heavy::new));
+    }
+
+    @Test
+    public void unitOfWork() {
+        UnitOfWorkScope unitScope = new UnitOfWorkScope();
+        PooledScope scope = new PooledScope(4, unitScope);
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(Heavy.class).in(scope)).build();
+
+        Heavy h1;
+        try (UnitOfWorkScope.UnitOfWork ignored = unitScope.begin()) {
+            h1 = injector.getInstance(Heavy.class);
+            assertNotSame(h1, injector.getInstance(Heavy.class));
+        }
+
+        try (UnitOfWorkScope.UnitOfWork ignored = unitScope.begin()) {
+            Heavy h2 = injector.getInstance(Heavy.class);
+            Heavy h3 = injector.getInstance(Heavy.class);
+            assertTrue(h1 == h2 || h1 == h3);
+        }
+
+        assertEquals(2, created.get());
+        assertEquals(0, ended.get());
+    }
+
+    public static class Heavy {
+
+        public Heavy() {
+            created.incrementAndGet();
+        }
+
+        @BeforeScopeEnd
+        public void end() {
+            ended.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.BeforeScopeEnd;
+import io.bootique.di.DIBootstrap;
+import io.bootique.di.DIRuntimeException;
+import io.bootique.di.Injector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RefreshableScopeTest {
+
+    static final AtomicInteger created = new AtomicInteger();
+    static final AtomicInteger ended = new AtomicInteger();
+
+    private ManualExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        created.set(0);
+        ended.set(0);
+        executor = new ManualExecutor();
+    }
+
+    @Test
+    public void singletonUntilInvalidated() {
+        RefreshableScope scope = new RefreshableScope(executor);
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(Settings.class).in(scope)).build();
+
+        Settings s1 = injector.getInstance(Settings.class);
+        assertSame(s1, injector.getInstance(Settings.class));
+        assertEquals(1, created.get());
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    @Test
+    public void invalidateAll_StaleWhileRefreshing() {
+        RefreshableScope scope = new RefreshableScope(executor);
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(Settings.class).in(scope)).build();
+
+        Settings s1 = injector.getInstance(Settings.class);
+        scope.invalidateAll();
+
+        // refresh is scheduled once, the old instance is returned until it is done
+        assertSame(s1, injector.getInstance(Settings.class));
+        assertSame(s1, injector.getInstance(Settings.class));
+        assertEquals(1, executor.tasks.size());
+
+        executor.runAll();
+
+        Settings s2 = injector.getInstance(Settings.class);
+        assertNotSame(s1, s2);
+        assertEquals(2, created.get());
+        assertEquals(1, ended.get());
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    @Test
+    public void ttl() throws InterruptedException {
+        RefreshableScope scope = new RefreshableScope(Duration.ofMillis(1), Runnable::run);
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(Settings.class).in(scope)).build();
+
+        Settings s1 = injector.getInstance(Settings.class);
+        Thread.sleep(5);
+
+        // with a synchronous executor the caller still gets the old instance, and the next one gets a new one
+        assertSame(s1, injector.getInstance(Settings.class));
+        assertNotSame(s1, injector.getInstance(Settings.class));
+        assertEquals(1, ended.get());
+    }
+
+    @Test
+    public void shutdown() {
+        RefreshableScope scope = new RefreshableScope(executor);
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(Settings.class).in(scope)).build();
+
+        injector.getInstance(Settings.class);
+        scope.shutdown();
+        assertEquals(1, ended.get());
+    }
+
+    @Test
+    public void shutdown_NoInstancesAfter() {
+        RefreshableScope scope = new RefreshableScope(executor);
+        Injector injector = DIBootstrap.injectorBuilder(b -> b.bind(Settings.class).in(scope)).build();
+
+        injector.getInstance(Settings.class);
+        scope.shutdown();
+
+        // an instance created now would never be ended
+        assertThrows(DIRuntimeException.class, () -> injector.getInstance(Settings.class));
+        assertEquals(1, created.get());
+        assertEquals(1, ended.get());
+    }
+
+    public static class Settings {
+
+        public Settings() {
+            created.incrementAndGet();
+        }
+
+        @BeforeScopeEnd
+        public void end() {
+            ended.incrementAndGet();
+        }
+    }
+
+    static class ManualExecutor implements Executor {
+
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.BQModule;
+import io.bootique.di.Binder;
+import io.bootique.di.DIBootstrap;
+import io.bootique.di.Key;
+import io.bootique.di.Provides;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StartupReportTest {
+
+    @Test
+    public void disabled() {
+        DefaultInjector injector = (DefaultInjector) DIBootstrap.injectorBuilder(new Module1()).build();
+        assertNull(injector.getStartupReport());
+    }
+
+    @Test
+    public void report() {
+        DefaultInjector injector = (DefaultInjector) DIBootstrap
+                .injectorBuilder(new Module1(), b -> b.bind(Eager.class).initOnStartup())
+                .profileStartup()
+                .build();
+
+        StartupReport report = injector.getStartupReport();
+        assertNotNull(report);
+
+        List<StartupReport.ModuleTiming> modules = report.getModules();
+        assertEquals(2, modules.size());
+        assertEquals(Module1.class, modules.get(0).getModuleType());
+        assertTrue(modules.get(0).getConfigureNanos() >= 0);
+        assertTrue(modules.get(0).getProvidesScanNanos() > 0);
+
+        List<StartupReport.ServiceTiming> services = report.getServices();
+        assertEquals(1, services.size());
+        assertEquals(Key.get(Eager.class), services.get(0).getKey());
+
+        StartupReport.ServiceTiming eager = services.get(0);
+        assertTrue(eager.getTotalNanos() >= 20_000_000L, "Slow dependency must take at least 20 ms");
+        assertTrue(eager.getSelfNanos() < 20_000_000L, "Dependency time must be excluded from self time");
+        assertTrue(report.getEarlySetupNanos() >= eager.getTotalNanos());
+        assertTrue(report.getTotalNanos() >= report.getEarlySetupNanos());
+
+        String table = report.toString();
+        assertTrue(table.startsWith("Injector startup report:"), table);
+        assertTrue(table.contains("configure     | " + Module1.class.getName()), table);
+        assertTrue(table.contains("service       | " + Key.get(Eager.class)), table);
+    }
+
+    @Test
+    public void instrumentationStopsAfterStartup() {
+        DefaultInjector injector = (DefaultInjector) DIBootstrap
+                .injectorBuilder(new Module1(), b -> b.bind(Eager.class).initOnStartup())
+                .profileStartup()
+                .build();
+
+        BindingStats stats = injector.getBinding(Key.get(Eager.class)).getStats();
+        assertEquals(1, stats.getInstances());
+        assertEquals(1, stats.getResolutions());
+
+        // profiling alone must not slow down resolution and instance creation once the injector is built
+        injector.getInstance(Eager.class);
+        injector.getInstance(Unscoped.class);
+        assertEquals(1, stats.getResolutions());
+        assertEquals(0, injector.getBinding(Key.get(Unscoped.class)).getStats().getInstances());
+    }
+
+    @Test
+    public void instrumentationContinuesAfterStartup() {
+        DefaultInjector injector = (DefaultInjector) DIBootstrap
+                .injectorBuilder(new Module1(), b -> b.bind(Eager.class).initOnStartup())
+                .profileStartup()
+                .enableInstrumentation()
+                .build();
+
+        BindingStats stats = injector.getBinding(Key.get(Eager.class)).getStats();
+        injector.getInstance(Eager.class);
+        injector.getInstance(Unscoped.class);
+        assertEquals(2, stats.getResolutions());
+        assertEquals(1, injector.getBinding(Key.get(Unscoped.class)).getStats().getInstances());
+    }
+
+    static class Slow {
+        Slow() throws InterruptedException {
+            Thread.sleep(25);
+        }
+    }
+
+    static class Eager {
+        @Inject
+        Slow slow;
+    }
+
+    static class Unscoped {
+    }
+
+    static class Module1 implements BQModule {
+
+        @Override
+        public void configure(Binder binder) {
+            binder.bind(Slow.class).inSingletonScope();
+        }
+
+        @Provides
+        String provideString() {
+            return "x";
+        }
+    }
+}
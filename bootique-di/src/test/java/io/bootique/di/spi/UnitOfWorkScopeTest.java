@@ -0,0 +1,326 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.di.spi;
+
+import io.bootique.di.BeforeScopeEnd;
+import io.bootique.di.DIBootstrap;
+import io.bootique.di.DIRuntimeException;
+import io.bootique.di.Injector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UnitOfWorkScopeTest {
+
+    static final List<String> ended = new ArrayList<>();
+
+    private UnitOfWorkScope scope;
+    private Injector injector;
+
+    @BeforeEach
+    public void setUp() {
+        ended.clear();
+        scope = new UnitOfWorkScope();
+        injector = DIBootstrap.injectorBuilder(b -> {
+            b.bind(S1.class).in(scope);
+            b.bind(S2.class).in(scope);
+        }).build();
+    }
+
+    @Test
+    public void sharedWithinUnit() {
+        S1 s1;
+        try (UnitOfWorkScope.UnitOfWork ignored = scope.begin()) {
+            assertTrue(scope.isActive());
+
+            s1 = injector.getInstance(S1.class);
+            assertSame(s1, injector.getInstance(S1.class));
+            assertNotSame(s1, injector.getInstance(S2.class));
+        }
+
+        assertFalse(scope.isActive());
+
+        try (UnitOfWorkScope.UnitOfWork ignored = scope.begin()) {
+            assertNotSame(s1, injector.getInstance(S1.class));
+        }
+    }
+
+    @Test
+    public void end_CallsBeforeScopeEnd() {
+        UnitOfWorkScope.UnitOfWork unit = scope.begin();
+        injector.getInstance(S1.class);
+        injector.getInstance(S2.class);
+        assertTrue(ended.isEmpty());
+
+        unit.end();
+        assertEquals(List.of("S2", "S1"), ended);
+
+        // second end is a noop
+        unit.end();
+        assertEquals(2, ended.size());
+    }
+
+    @Test
+    public void end_CallsAllHandlersOnFailure() {
+        injector = DIBootstrap.injectorBuilder(b -> {
+            b.bind(S1.class).in(scope);
+            b.bind(Failing.class).in(scope);
+        }).build();
+
+        UnitOfWorkScope.UnitOfWork unit = scope.begin();
+        injector.getInstance(Failing.class);
+        injector.getInstance(S1.class);
+
+        assertThrows(DIRuntimeException.class, unit::end);
+        assertEquals(List.of("S1", "Failing"), ended);
+        assertFalse(scope.isActive());
+    }
+
+    @Test
+    public void noActiveUnit() {
+        assertFalse(scope.isActive());
+        assertThrows(DIRuntimeException.class, () -> injector.getInstance(S1.class));
+    }
+
+    @Test
+    public void nestedUnits() {
+        try (UnitOfWorkScope.UnitOfWork outer = scope.begin()) {
+            S1 outerS1 = injector.getInstance(S1.class);
+
+            UnitOfWorkScope.UnitOfWork inner = scope.begin();
+            S1 innerS1 = injector.getInstance(S1.class);
+            assertNotSame(outerS1, innerS1);
+
+            // outer unit can't be ended while inner is active
+            assertThrows(DIRuntimeException.class, outer::end);
+
+            inner.end();
+            assertEquals(List.of("S1"), ended);
+            assertSame(outerS1, injector.getInstance(S1.class));
+        }
+
+        assertEquals(List.of("S1", "S1"), ended);
+    }
+
+    @Test
+    public void run() {
+        S1[] s1 = new S1[1];
+        scope.run(() -> {
+            s1[0] = injector.getInstance(S1.class);
+            assertSame(s1[0], injector.getInstance(S1.class));
+        });
+
+        assertNotNull(s1[0]);
+        assertFalse(scope.isActive());
+        assertEquals(List.of("S1"), ended);
+    }
+
+    @Test
+    public void inheritableCarrier_SharedWithChildThreads() throws Exception {
+        scope = new UnitOfWorkScope(ScopeCarrier.inheritableThreadLocal());
+        injector = DIBootstrap.injectorBuilder(b -> b.bind(S1.class).in(scope)).build();
+
+        try (UnitOfWorkScope.UnitOfWork ignored = scope.begin()) {
+            S1 s1 = injector.getInstance(S1.class);
+
+            S1[] childS1 = new S1[1];
+            Thread child = new Thread(() -> childS1[0] = injector.getInstance(S1.class));
+            child.start();
+            child.join();
+
+            assertSame(s1, childS1[0]);
+        }
+
+        assertEquals(List.of("S1"), ended);
+    }
+
+    @Test
+    public void inheritableCarrier_ConcurrentCreation() throws Exception {
+        scope = new UnitOfWorkScope(ScopeCarrier.inheritableThreadLocal());
+        injector = DIBootstrap.injectorBuilder(b -> b.bind(Raced.class).in(scope)).build();
+        Raced.barrier = new CyclicBarrier(2);
+
+        try (UnitOfWorkScope.UnitOfWork ignored = scope.begin()) {
+            Raced[] raced = new Raced[2];
+            Thread t1 = new Thread(() -> raced[0] = injector.getInstance(Raced.class));
+            Thread t2 = new Thread(() -> raced[1] = injector.getInstance(Raced.class));
+            t1.start();
+            t2.start();
+            t1.join(5000);
+            t2.join(5000);
+
+            // both threads create an instance at the same time, only one of them is kept
+            assertNotNull(raced[0]);
+            assertSame(raced[0], raced[1]);
+            assertSame(raced[0], injector.getInstance(Raced.class));
+            assertEquals(List.of("Raced"), ended);
+        }
+
+        assertEquals(List.of("Raced", "Raced"), ended);
+    }
+
+    @Test
+    public void inheritableCarrier_NoDeadlockWithSingleton() throws Exception {
+        scope = new UnitOfWorkScope(ScopeCarrier.inheritableThreadLocal());
+        injector = DIBootstrap.injectorBuilder(b -> {
+            b.bind(S1.class).in(scope);
+            b.bind(DependsOnSlowSingleton.class).in(scope);
+            b.bind(SlowSingleton.class).inSingletonScope();
+        }).build();
+        SlowSingleton.started = new CountDownLatch(1);
+
+        // not ended on failure, as ending would wait for the deadlocked threads
+        UnitOfWorkScope.UnitOfWork unit = scope.begin();
+
+        // the singleton needs a unit instance, while the other thread waits for the singleton while creating
+        // another unit instance
+        Thread singletonThread = new Thread(() -> injector.getInstance(SlowSingleton.class));
+        Thread unitThread = new Thread(() -> {
+            try {
+                SlowSingleton.started.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            injector.getInstance(DependsOnSlowSingleton.class);
+        });
+        singletonThread.setDaemon(true);
+        unitThread.setDaemon(true);
+        singletonThread.start();
+        unitThread.start();
+        singletonThread.join(5000);
+        unitThread.join(5000);
+
+        assertFalse(singletonThread.isAlive(), "Deadlock");
+        assertFalse(unitThread.isAlive(), "Deadlock");
+        assertSame(injector.getInstance(SlowSingleton.class), injector.getInstance(DependsOnSlowSingleton.class).singleton);
+        unit.end();
+    }
+
+    @Test
+    public void callOnlyCarrier() throws Exception {
+        scope = new UnitOfWorkScope(new CallOnlyCarrier());
+        injector = DIBootstrap.injectorBuilder(b -> b.bind(S1.class).in(scope)).build();
+
+        assertThrows(UnsupportedOperationException.class, scope::begin);
+
+        S1 s1 = scope.call(() -> {
+            assertTrue(scope.isActive());
+            return injector.getInstance(S1.class);
+        });
+
+        assertNotNull(s1);
+        assertFalse(scope.isActive());
+        assertEquals(List.of("S1"), ended);
+    }
+
+    // emulates carriers like ScopedValue that can only bind a value for the duration of a call
+    static class CallOnlyCarrier implements ScopeCarrier<UnitOfWorkScope.UnitOfWork> {
+
+        private UnitOfWorkScope.UnitOfWork current;
+
+        @Override
+        public UnitOfWorkScope.UnitOfWork get() {
+            return current;
+        }
+
+        @Override
+        public <R> R callWith(UnitOfWorkScope.UnitOfWork context, Callable<R> body) throws Exception {
+            UnitOfWorkScope.UnitOfWork previous = current;
+            current = context;
+            try {
+                return body.call();
+            } finally {
+                current = previous;
+            }
+        }
+    }
+
+    public static class S1 {
+
+        @BeforeScopeEnd
+        public void end() {
+            ended.add("S1");
+        }
+    }
+
+    public static class S2 {
+
+        @BeforeScopeEnd
+        public void end() {
+            ended.add("S2");
+        }
+    }
+
+    public static class Raced {
+
+        static CyclicBarrier barrier;
+
+        public Raced() throws Exception {
+            barrier.await(5, TimeUnit.SECONDS);
+        }
+
+        @BeforeScopeEnd
+        public void end() {
+            ended.add("Raced");
+        }
+    }
+
+    public static class SlowSingleton {
+
+        static CountDownLatch started;
+
+        @Inject
+        public SlowSingleton(Provider<S1> s1) throws InterruptedException {
+            started.countDown();
+            // let the other thread start creating a unit instance and wait for this singleton
+            Thread.sleep(200);
+            s1.get();
+        }
+    }
+
+    public static class DependsOnSlowSingleton {
+
+        final SlowSingleton singleton;
+
+        @Inject
+        public DependsOnSlowSingleton(SlowSingleton singleton) {
+            this.singleton = singleton;
+        }
+    }
+
+    public static class Failing {
+
+        @BeforeScopeEnd
+        public void end() {
+            ended.add("Failing");
+            throw new IllegalStateException("test");
+        }
+    }
+}